@@ -0,0 +1,24 @@
+package com.financecoach.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BackfillConfig {
+
+    /**
+     * Single thread for the one-off data backfills that start with the app, so startup and
+     * request handling never wait on them. They run one after another in the order they were
+     * submitted; each is guarded by its own job lease and resumes on the next deploy if cut short.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor backfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("backfill-");
+        executor.initialize();
+        return executor;
+    }
+}
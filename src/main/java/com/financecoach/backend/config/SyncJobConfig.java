@@ -0,0 +1,33 @@
+package com.financecoach.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SyncJobConfig {
+
+    @Value("${sync.jobs.pool-size:4}")
+    private int poolSize;
+
+    @Value("${sync.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Bounded pool for user-triggered sync jobs, so Plaid latency never ties up request threads.
+     * Once the queue is full new jobs are rejected instead of piling up.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transactionSyncJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,7 +1,10 @@
 // src/main/java/com/financecoach/backend/controller/AnalyticsController.java
 package com.financecoach.backend.controller;
 
+import com.financecoach.backend.dto.AnalyticsQueryRequest;
 import com.financecoach.backend.service.AnalyticsService;
+import com.financecoach.backend.service.CashFlowForecastService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -20,10 +24,12 @@ import java.util.UUID;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final CashFlowForecastService cashFlowForecastService;
 
     @Autowired
-    public AnalyticsController(AnalyticsService analyticsService) {
+    public AnalyticsController(AnalyticsService analyticsService, CashFlowForecastService cashFlowForecastService) {
         this.analyticsService = analyticsService;
+        this.cashFlowForecastService = cashFlowForecastService;
     }
 
     /**
@@ -68,16 +74,17 @@ public class AnalyticsController {
     }
 
     /**
-     * Get top merchants
+     * Get top merchants (estimated for long ranges unless exact=true)
      */
     @GetMapping("/top-merchants")
     public ResponseEntity<Map<String, BigDecimal>> getTopMerchants(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "5") int limit) {
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "false") boolean exact) {
 
         UUID userId = getCurrentUserId();
-        Map<String, BigDecimal> topMerchants = analyticsService.getTopMerchants(userId, startDate, endDate, limit);
+        Map<String, BigDecimal> topMerchants = analyticsService.getTopMerchants(userId, startDate, endDate, limit, exact);
         return ResponseEntity.ok(topMerchants);
     }
 
@@ -118,6 +125,56 @@ public class AnalyticsController {
         return ResponseEntity.ok(comparison);
     }
 
+    /**
+     * Trailing spending/income windows (default 7, 30 and 90 days) with a daily trend
+     */
+    @GetMapping("/rolling")
+    public ResponseEntity<Map<String, Object>> getRollingWindows(
+            @RequestParam(defaultValue = "7,30,90") List<Integer> windows,
+            @RequestParam(defaultValue = "90") int trendDays,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        UUID userId = getCurrentUserId();
+        LocalDate targetDate = endDate != null ? endDate : LocalDate.now();
+        Map<String, Object> rolling = analyticsService.getRollingWindows(userId, targetDate, windows, trendDays);
+        return ResponseEntity.ok(rolling);
+    }
+
+    /**
+     * Last 12 months vs the same months a year earlier
+     */
+    @GetMapping("/yoy")
+    public ResponseEntity<Map<String, Object>> getYearOverYear(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate month) {
+
+        UUID userId = getCurrentUserId();
+        LocalDate targetMonth = month != null ? month : LocalDate.now();
+        Map<String, Object> yoy = analyticsService.getYearOverYear(userId, targetMonth);
+        return ResponseEntity.ok(yoy);
+    }
+
+    /**
+     * Answer several metrics in one round trip, keyed by each query's id
+     */
+    @PostMapping("/query")
+    public ResponseEntity<Map<String, Object>> query(@Valid @RequestBody AnalyticsQueryRequest request) {
+        UUID userId = getCurrentUserId();
+        Map<String, Object> results = analyticsService.query(userId, request.getQueries());
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Projected per-account balances (default 30, 60 and 90 days) from recurring transactions
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<Map<String, Object>> getForecast(
+            @RequestParam(defaultValue = "30,60,90") List<Integer> horizons) {
+
+        UUID userId = getCurrentUserId();
+        Map<String, Object> forecast = cashFlowForecastService.getForecast(userId, horizons);
+        return ResponseEntity.ok(forecast);
+    }
+
     private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return (UUID) authentication.getPrincipal();
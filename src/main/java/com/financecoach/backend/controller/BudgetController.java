@@ -4,7 +4,10 @@ package com.financecoach.backend.controller;
 import com.financecoach.backend.dto.BudgetRequest;
 import com.financecoach.backend.dto.BudgetResponse;
 import com.financecoach.backend.dto.BudgetSummaryResponse;
+import com.financecoach.backend.dto.BudgetTemplateRequest;
+import com.financecoach.backend.dto.BudgetTemplateResponse;
 import com.financecoach.backend.service.BudgetService;
+import com.financecoach.backend.service.BudgetTemplateService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -25,10 +28,12 @@ import java.util.UUID;
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final BudgetTemplateService budgetTemplateService;
 
     @Autowired
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, BudgetTemplateService budgetTemplateService) {
         this.budgetService = budgetService;
+        this.budgetTemplateService = budgetTemplateService;
     }
 
     /**
@@ -154,6 +159,38 @@ public class BudgetController {
         ));
     }
 
+    /**
+     * Create or update a recurring budget template
+     * POST /api/budgets/templates
+     */
+    @PostMapping("/templates")
+    public ResponseEntity<BudgetTemplateResponse> createOrUpdateTemplate(@Valid @RequestBody BudgetTemplateRequest request) {
+        UUID userId = getCurrentUserId();
+        BudgetTemplateResponse template = budgetTemplateService.createOrUpdateTemplate(userId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(template);
+    }
+
+    /**
+     * Get active budget templates
+     * GET /api/budgets/templates
+     */
+    @GetMapping("/templates")
+    public ResponseEntity<List<BudgetTemplateResponse>> getTemplates() {
+        UUID userId = getCurrentUserId();
+        return ResponseEntity.ok(budgetTemplateService.getTemplates(userId));
+    }
+
+    /**
+     * Stop a budget template from rolling forward
+     * DELETE /api/budgets/templates/{id}
+     */
+    @DeleteMapping("/templates/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable UUID id) {
+        UUID userId = getCurrentUserId();
+        budgetTemplateService.deleteTemplate(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+
     // Helper method to get current authenticated user ID
     private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
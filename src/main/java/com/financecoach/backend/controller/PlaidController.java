@@ -6,6 +6,7 @@ import com.financecoach.backend.dto.plaid.ExchangeTokenRequest;
 import com.financecoach.backend.dto.plaid.LinkTokenResponse;
 import com.financecoach.backend.model.BankAccount;
 import com.financecoach.backend.service.PlaidService;
+import com.financecoach.backend.service.PlaidWebhookService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +23,12 @@ import java.util.stream.Collectors;
 public class PlaidController {
 
     private final PlaidService plaidService;
+    private final PlaidWebhookService plaidWebhookService;
 
     @Autowired
-    public PlaidController(PlaidService plaidService) {
+    public PlaidController(PlaidService plaidService, PlaidWebhookService plaidWebhookService) {
         this.plaidService = plaidService;
+        this.plaidWebhookService = plaidWebhookService;
     }
 
     /**
@@ -88,6 +91,19 @@ public class PlaidController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Plaid webhook receiver (PUBLIC - authenticated by the Plaid-Verification JWT)
+     * POST /api/plaid/webhook
+     */
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> handleWebhook(
+            @RequestBody String payload,
+            @RequestHeader(value = "Plaid-Verification", required = false) String verificationHeader) {
+
+        plaidWebhookService.handleWebhook(payload, verificationHeader);
+        return ResponseEntity.ok().build();
+    }
+
     // Helper methods
     private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
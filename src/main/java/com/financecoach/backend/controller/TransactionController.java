@@ -1,16 +1,23 @@
 // src/main/java/com/financecoach/backend/controller/TransactionController.java
 package com.financecoach.backend.controller;
 
+import com.financecoach.backend.dto.plaid.SyncJobResponse;
+import com.financecoach.backend.dto.plaid.TransactionPageResponse;
 import com.financecoach.backend.dto.plaid.TransactionResponse;
 import com.financecoach.backend.model.Transaction;
 import com.financecoach.backend.service.TransactionService;
+import com.financecoach.backend.service.TransactionSyncJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -20,11 +27,17 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final long STREAM_TIMEOUT_MS = 300_000;
+
     private final TransactionService transactionService;
+    private final TransactionSyncJobService transactionSyncJobService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionSyncJobService transactionSyncJobService) {
         this.transactionService = transactionService;
+        this.transactionSyncJobService = transactionSyncJobService;
     }
 
     /**
@@ -44,38 +57,88 @@ public class TransactionController {
     }
 
     /**
-     * Sync transactions for all user's accounts
+     * Start a background sync of all user's accounts
      * POST /api/transactions/sync
+     *
+     * Returns 202 with a job id right away; poll the status endpoint for progress.
+     * A second request while a sync is running returns the same job.
      */
     @PostMapping("/sync")
-    public ResponseEntity<List<TransactionResponse>> syncAllTransactions() {
+    public ResponseEntity<SyncJobResponse> syncAllTransactions() {
         UUID userId = getCurrentUserId();
-        List<Transaction> transactions = transactionService.syncAllTransactions(userId);
-
-        List<TransactionResponse> response = transactions.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        SyncJobResponse job = transactionSyncJobService.startSync(userId);
+        return ResponseEntity.accepted().body(job);
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Get progress of a sync job
+     * GET /api/transactions/sync/{jobId}
+     */
+    @GetMapping("/sync/{jobId}")
+    public ResponseEntity<SyncJobResponse> getSyncJob(@PathVariable UUID jobId) {
+        UUID userId = getCurrentUserId();
+        return transactionSyncJobService.getJob(jobId, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Get all transactions (with optional date range)
-     * GET /api/transactions?startDate=2024-01-01&endDate=2024-12-31
+     * Get transactions one page at a time, newest first (with optional date range)
+     * GET /api/transactions?startDate=2024-01-01&endDate=2024-12-31&limit=100&cursor=...
      */
     @GetMapping
-    public ResponseEntity<List<TransactionResponse>> getTransactions(
+    public ResponseEntity<TransactionPageResponse> getTransactions(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
 
         UUID userId = getCurrentUserId();
-        List<Transaction> transactions = transactionService.getTransactions(userId, startDate, endDate);
+        TransactionService.TransactionPage page = transactionService.getTransactionPage(
+                userId, startDate, endDate, cursor, Math.clamp(limit, 1, MAX_PAGE_SIZE));
 
-        List<TransactionResponse> response = transactions.stream()
+        List<TransactionResponse> transactions = page.transactions().stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new TransactionPageResponse(transactions, page.nextCursor()));
+    }
+
+    /**
+     * Stream all transactions in the range as newline-delimited JSON, newest first
+     * GET /api/transactions/stream?startDate=2024-01-01&endDate=2024-12-31
+     *
+     * Rows are written as each keyset page is read, so the first byte goes out after one
+     * page query and heap use does not grow with the user's history.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseBodyEmitter streamTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        UUID userId = getCurrentUserId();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(STREAM_TIMEOUT_MS);
+
+        Thread.ofVirtual().name("transactions-stream").start(() -> {
+            try {
+                transactionService.forEachTransactionPage(userId, startDate, endDate, page -> {
+                    for (Transaction transaction : page) {
+                        try {
+                            emitter.send(convertToResponse(transaction), MediaType.APPLICATION_JSON);
+                            emitter.send("\n", MediaType.TEXT_PLAIN);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+                emitter.complete();
+            } catch (Exception e) {
+                // Client went away or the query failed; nothing more can be sent
+                emitter.completeWithError(e);
+            }
+        });
+
+        return emitter;
     }
 
     /**
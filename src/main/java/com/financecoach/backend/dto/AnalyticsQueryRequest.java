@@ -0,0 +1,57 @@
+package com.financecoach.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Several analytics metrics answered in one request, e.g. everything a dashboard needs
+ */
+@Data
+public class AnalyticsQueryRequest {
+
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 20, message = "At most 20 queries per request")
+    @Valid
+    private List<MetricQuery> queries;
+
+    public AnalyticsQueryRequest() {}
+
+    public AnalyticsQueryRequest(List<MetricQuery> queries) {
+        this.queries = queries;
+    }
+
+    @Data
+    public static class MetricQuery {
+
+        private String id;  // Optional - key in the response, defaults to the metric name
+
+        // spending-by-category, total-spending, total-income, top-merchants or spending-trend
+        @NotBlank(message = "Metric is required")
+        private String metric;
+
+        @NotNull(message = "Start date is required")
+        private LocalDate startDate;
+
+        @NotNull(message = "End date is required")
+        private LocalDate endDate;
+
+        private Integer limit;  // Optional - top-merchants only, defaults to 5
+
+        private Boolean exact;  // Optional - top-merchants only, rank long ranges exactly instead of estimating
+
+        public MetricQuery() {}
+
+        public MetricQuery(String metric, LocalDate startDate, LocalDate endDate) {
+            this.metric = metric;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.financecoach.backend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BudgetTemplateRequest {
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+
+    private String notes;
+
+    @Min(value = 0, message = "Alert threshold must be between 0 and 100")
+    @Max(value = 100, message = "Alert threshold must be between 0 and 100")
+    private Double alertThreshold;  // Optional - defaults to 80%
+
+    private LocalDate startMonth;  // Optional - defaults to current month
+
+    private LocalDate endMonth;  // Optional - no end when missing
+}
@@ -0,0 +1,26 @@
+package com.financecoach.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetTemplateResponse {
+    private UUID id;
+    private String category;
+    private BigDecimal amount;
+    private String currencyCode;
+    private String notes;
+    private Double alertThreshold;
+    private LocalDate startMonth;
+    private LocalDate endMonth;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+// src/main/java/com/financecoach/backend/dto/plaid/SyncJobResponse.java
+package com.financecoach.backend.dto.plaid;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class SyncJobResponse {
+    private UUID jobId;
+    private String status;  // QUEUED, RUNNING, COMPLETED, FAILED
+    private int accountsTotal;
+    private int accountsDone;
+    private int accountsDeferred;  // Already syncing elsewhere; their data arrives after the job finishes
+    private int transactionsIngested;
+    private List<String> errors;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public SyncJobResponse() {}
+
+    public SyncJobResponse(UUID jobId, String status, int accountsTotal, int accountsDone,
+                           int accountsDeferred, int transactionsIngested, List<String> errors,
+                           LocalDateTime createdAt, LocalDateTime finishedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.accountsTotal = accountsTotal;
+        this.accountsDone = accountsDone;
+        this.accountsDeferred = accountsDeferred;
+        this.transactionsIngested = transactionsIngested;
+        this.errors = errors;
+        this.createdAt = createdAt;
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,21 @@
+// src/main/java/com/financecoach/backend/dto/plaid/TransactionPageResponse.java
+package com.financecoach.backend.dto.plaid;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    private String nextCursor;  // Pass back as ?cursor= for the next page, null on the last page
+    private boolean hasMore;
+
+    public TransactionPageResponse() {}
+
+    public TransactionPageResponse(List<TransactionResponse> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+}
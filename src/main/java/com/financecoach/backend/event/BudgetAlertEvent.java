@@ -0,0 +1,16 @@
+package com.financecoach.backend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published after the budget refresh job commits, once for each budget whose spending
+ * crossed its alert threshold or its amount since the previous run.
+ *
+ * @param level {@link com.financecoach.backend.model.Budget#ALERT_THRESHOLD} or
+ *              {@link com.financecoach.backend.model.Budget#ALERT_EXCEEDED}
+ */
+public record BudgetAlertEvent(UUID budgetId, UUID userId, String category, LocalDate month,
+                               int level, BigDecimal spent, BigDecimal amount) {
+}
@@ -0,0 +1,33 @@
+package com.financecoach.backend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published inside the ingestion transaction after a page of Plaid transactions is written.
+ * Each change carries the row as it was before and after the page, so listeners that
+ * maintain derived data (rollups, budgets, caches) can apply exact deltas, including
+ * corrections when a pending transaction posts, is modified or is removed.
+ *
+ * @param userIds users whose transactions changed
+ * @param changes one entry per inserted, updated or removed transaction
+ */
+public record TransactionsIngestedEvent(Set<UUID> userIds, List<Change> changes) {
+
+    /**
+     * @param before the row before ingestion, null for inserts
+     * @param after  the row after ingestion, null for removals
+     */
+    public record Change(Snapshot before, Snapshot after) {
+    }
+
+    /**
+     * The fields derived data is keyed on, captured at one point in time
+     */
+    public record Snapshot(UUID userId, UUID accountId, LocalDate date, String category,
+                           String budgetCategory, Integer merchantId, BigDecimal amount) {
+    }
+}
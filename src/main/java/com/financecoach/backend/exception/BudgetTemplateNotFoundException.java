@@ -0,0 +1,10 @@
+package com.financecoach.backend.exception;
+
+import java.util.UUID;
+
+public class BudgetTemplateNotFoundException extends FinanceCoachException {
+
+    public BudgetTemplateNotFoundException(UUID templateId) {
+        super("Budget template not found with id: " + templateId, "BUDGET_TEMPLATE_NOT_FOUND");
+    }
+}
@@ -325,6 +325,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Handle budget template not found exceptions
+     */
+    @ExceptionHandler(BudgetTemplateNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBudgetTemplateNotFoundException(
+            BudgetTemplateNotFoundException ex,
+            HttpServletRequest request) {
+
+        logger.warn("Budget template not found: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                ex.getErrorCode()
+        );
+        error.setPath(request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     /**
      * Handle no previous budgets exception
      */
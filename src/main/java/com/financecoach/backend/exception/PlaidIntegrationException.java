@@ -3,11 +3,39 @@ package com.financecoach.backend.exception;
 
 public class PlaidIntegrationException extends FinanceCoachException {
 
+    // Plaid's error_code (e.g. ITEM_LOGIN_REQUIRED), null when the failure never reached Plaid
+    private final String plaidErrorCode;
+
+    // Whether the same call can succeed on retry (rate limits, Plaid/institution outages, timeouts)
+    private final boolean retryable;
+
     public PlaidIntegrationException(String message) {
-        super("Plaid API error: " + message, "PLAID_ERROR");
+        this(message, null, false);
     }
 
     public PlaidIntegrationException(String message, Throwable cause) {
         super("Plaid API error: " + message, "PLAID_ERROR", cause);
+        this.plaidErrorCode = null;
+        this.retryable = false;
+    }
+
+    public PlaidIntegrationException(String message, String plaidErrorCode, boolean retryable) {
+        super("Plaid API error: " + message, "PLAID_ERROR");
+        this.plaidErrorCode = plaidErrorCode;
+        this.retryable = retryable;
+    }
+
+    public PlaidIntegrationException(String message, Throwable cause, boolean retryable) {
+        super("Plaid API error: " + message, "PLAID_ERROR", cause);
+        this.plaidErrorCode = null;
+        this.retryable = retryable;
+    }
+
+    public String getPlaidErrorCode() {
+        return plaidErrorCode;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
     }
-}
\ No newline at end of file
+}
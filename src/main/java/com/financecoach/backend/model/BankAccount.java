@@ -24,6 +24,9 @@ public class BankAccount {
     @Column(name = "plaid_account_id", nullable = false)
     private String plaidAccountId;
 
+    @Column(name = "plaid_item_id")
+    private String plaidItemId;  // Shared by every account linked through the same Plaid Item
+
     @Column(name = "plaid_access_token", nullable = false)
     @Convert(converter = EncryptedStringConverter.class)
     private String plaidAccessToken;
@@ -55,6 +58,9 @@ public class BankAccount {
     @Column(name = "last_synced_at")
     private LocalDateTime lastSyncedAt;
 
+    @Column(name = "plaid_cursor", columnDefinition = "TEXT")
+    private String plaidCursor;  // Item-level /transactions/sync cursor, same value on every account of the item
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
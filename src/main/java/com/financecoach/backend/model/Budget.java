@@ -20,6 +20,11 @@ import java.util.UUID;
 )
 public class Budget {
 
+    // Alert levels, as last evaluated by the budget refresh job
+    public static final int ALERT_NONE = 0;
+    public static final int ALERT_THRESHOLD = 1;
+    public static final int ALERT_EXCEEDED = 2;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -51,6 +56,9 @@ public class Budget {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Column(name = "alert_level")
+    private Integer alertLevel = ALERT_NONE;  // Level at the last refresh; crossings above it raise alerts
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -101,6 +109,17 @@ public class Budget {
         return getPercentageSpent() >= alertThreshold;
     }
 
+    // Alert level for the current spend: exceeded, at/over the alert threshold, or neither
+    public int evaluateAlertLevel() {
+        if (spent == null || amount == null) return ALERT_NONE;
+        if (spent.compareTo(amount) > 0) return ALERT_EXCEEDED;
+
+        BigDecimal threshold = BigDecimal.valueOf(alertThreshold != null ? alertThreshold : 80.0);
+        return spent.multiply(BigDecimal.valueOf(100)).compareTo(amount.multiply(threshold)) >= 0
+                ? ALERT_THRESHOLD
+                : ALERT_NONE;
+    }
+
     // Get remaining budget
     public BigDecimal getRemainingBudget() {
         if (amount == null) return BigDecimal.ZERO;
@@ -185,6 +204,14 @@ public class Budget {
         this.alertThreshold = alertThreshold;
     }
 
+    public Integer getAlertLevel() {
+        return alertLevel;
+    }
+
+    public void setAlertLevel(Integer alertLevel) {
+        this.alertLevel = alertLevel;
+    }
+
     public Boolean getIsActive() {
         return isActive;
     }
@@ -0,0 +1,36 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Maps a Plaid primary category to a budget category, globally or for one user.
+ * User rows override global rows, which override the built-in defaults. Mappings are
+ * reloaded periodically and apply to transactions ingested afterwards.
+ */
+@Entity
+@Table(name = "budget_category_mappings", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_budget_category_mapping_user_category",
+                columnNames = {"user_id", "plaid_category"})
+})
+@Data
+public class BudgetCategoryMapping {
+
+    // Budget category of spending that never counts toward a budget (transfers, income)
+    public static final String EXCLUDED = "Excluded";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id")
+    private UUID userId;  // Null for a global mapping
+
+    @Column(name = "plaid_category", nullable = false)
+    private String plaidCategory;  // Plaid primary category, e.g. "FOOD_AND_DRINK"
+
+    @Column(name = "budget_category", nullable = false)
+    private String budgetCategory;  // e.g. "Food & Dining", or "Excluded" to keep it out of budgets
+}
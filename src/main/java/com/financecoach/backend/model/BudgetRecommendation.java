@@ -0,0 +1,45 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Precomputed budget suggestion for one user and budget category, from the monthly spend
+ * of recent complete months. Rewritten nightly; the recommendations endpoint only reads it.
+ */
+@Entity
+@Table(name = "budget_recommendations", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_budget_recommendation_user_category", columnNames = {"user_id", "category"})
+})
+@Data
+public class BudgetRecommendation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "category", nullable = false)
+    private String category;  // Budget category
+
+    @Column(name = "median_spend", nullable = false, precision = 19, scale = 2)
+    private BigDecimal medianSpend;
+
+    @Column(name = "p75_spend", nullable = false, precision = 19, scale = 2)
+    private BigDecimal p75Spend;
+
+    @Column(name = "recommended_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal recommendedAmount;
+
+    @Column(name = "months_observed", nullable = false)
+    private Integer monthsObserved;  // Months used after outliers were dropped
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
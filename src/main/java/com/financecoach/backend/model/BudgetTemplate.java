@@ -0,0 +1,59 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Recurring budget: rolled forward into a {@link Budget} for every month from startMonth
+ * through endMonth (open-ended when null). Budgets already present for a month, including
+ * soft-deleted ones, are left as they are.
+ */
+@Entity
+@Table(name = "budget_templates", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_budget_template_user_category", columnNames = {"user_id", "category"})
+})
+@Data
+public class BudgetTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "currency_code")
+    private String currencyCode = "USD";
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "alert_threshold")
+    private Double alertThreshold = 80.0;
+
+    @Column(name = "start_month", nullable = false)
+    private LocalDate startMonth;  // First day of the first month covered
+
+    @Column(name = "end_month")
+    private LocalDate endMonth;  // First day of the last month covered, null for no end
+
+    @Column(name = "is_active")
+    private Boolean isActive = true;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
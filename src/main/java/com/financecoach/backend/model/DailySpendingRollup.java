@@ -0,0 +1,50 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per-user daily spend/income totals by category, budget category and merchant id, maintained incrementally
+ * as transactions are ingested. Analytics read this instead of raw transactions, so a month
+ * is a few hundred rows at most regardless of transaction volume.
+ */
+@Entity
+@Table(name = "daily_spending_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_rollup_user_date_category_merchant",
+                columnNames = {"user_id", "date", "category", "budget_category", "merchant_id"})
+})
+@Data
+public class DailySpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "category", nullable = false)
+    private String category;  // Raw Plaid category, "Uncategorized" when missing
+
+    @Column(name = "budget_category", nullable = false)
+    private String budgetCategory;  // Budget category stored on the transactions, or "Excluded"
+
+    @Column(name = "merchant_id", nullable = false)
+    private Integer merchantId;  // Normalized merchant (merchants.id)
+
+    @Column(name = "spend", nullable = false)
+    private BigDecimal spend = BigDecimal.ZERO;  // Sum of positive amounts
+
+    @Column(name = "income", nullable = false)
+    private BigDecimal income = BigDecimal.ZERO;  // Sum of negated negative amounts
+
+    @Column(name = "txn_count", nullable = false)
+    private Integer txnCount = 0;
+}
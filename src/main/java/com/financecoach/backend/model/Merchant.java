@@ -0,0 +1,30 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dictionary of canonical merchant names. Transactions and rollups reference merchants by
+ * this compact id, so spellings of the same merchant group together.
+ */
+@Entity
+@Table(name = "merchants")
+@Data
+public class Merchant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;  // Canonical name, e.g. "Amazon"
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public Merchant() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
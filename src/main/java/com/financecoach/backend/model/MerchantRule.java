@@ -0,0 +1,25 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Normalization rule: raw merchant strings whose cleaned words start with {@code pattern}
+ * map to {@code merchantName}. Rules are reloaded periodically, so new ones apply to
+ * subsequent ingests without a deploy.
+ */
+@Entity
+@Table(name = "merchant_rules")
+@Data
+public class MerchantRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "pattern", nullable = false, unique = true)
+    private String pattern;  // Cleaned word prefix, e.g. "AMAZON MKTPL"
+
+    @Column(name = "merchant_name", nullable = false)
+    private String merchantName;  // Canonical name, e.g. "Amazon"
+}
@@ -0,0 +1,37 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Space-Saving summary of one user's heaviest merchants (by spend, in cents) for one month.
+ * Updated as transactions are ingested; months are merged to answer top-merchant
+ * queries over long ranges in constant memory.
+ */
+@Entity
+@Table(name = "merchant_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_merchant_sketch_user_month", columnNames = {"user_id", "month"})
+})
+@Data
+public class MerchantSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "month", nullable = false)
+    private LocalDate month;  // First day of the month
+
+    @Column(name = "counters", nullable = false, columnDefinition = "text")
+    private String counters = "";  // SpaceSavingSketch.encode()
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,62 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Recent occurrences of one merchant's inflows or outflows on one account, and the cadence
+ * detected in them. Maintained incrementally at ingest from a bounded window of occurrences,
+ * so forecasting never rescans transaction history.
+ */
+@Entity
+@Table(name = "recurring_series", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_recurring_series_account_merchant_direction",
+                columnNames = {"account_id", "merchant_id", "direction"})
+}, indexes = {
+        @Index(name = "idx_recurring_series_user", columnList = "user_id")
+})
+@Data
+public class RecurringSeries {
+
+    public static final String OUTFLOW = "OUTFLOW";
+    public static final String INFLOW = "INFLOW";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Column(name = "merchant_id", nullable = false)
+    private Integer merchantId;
+
+    @Column(name = "direction", nullable = false)
+    private String direction;  // OUTFLOW or INFLOW
+
+    @Column(name = "occurrences", nullable = false, columnDefinition = "text")
+    private String occurrences = "";  // Most recent "yyyy-mm-dd:cents" entries, oldest first
+
+    @Column(name = "period_days")
+    private Integer periodDays;  // Detected cadence, null when not recurring
+
+    @Column(name = "expected_amount", precision = 19, scale = 2)
+    private BigDecimal expectedAmount;  // Typical amount, Plaid sign
+
+    @Column(name = "previous_date")
+    private LocalDate previousDate;  // Occurrence before lastDate; semi-monthly projections use both days of month
+
+    @Column(name = "last_date")
+    private LocalDate lastDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
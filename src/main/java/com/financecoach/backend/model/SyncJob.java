@@ -0,0 +1,66 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a user-triggered transaction sync, shared by all app instances so any of them
+ * can answer a status poll. {@code activeUserId} is set while the job is queued or running;
+ * its unique constraint is the per-user claim that keeps a user to one job at a time.
+ */
+@Entity
+@Table(name = "sync_jobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_sync_job_active_user", columnNames = "active_user_id")
+}, indexes = {
+        @Index(name = "idx_sync_job_finished", columnList = "finished_at")
+})
+@Data
+public class SyncJob {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "active_user_id")
+    private UUID activeUserId;  // Same as userId until the job finishes, then null
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "owner", length = 100)
+    private String owner;  // Instance running the job
+
+    @Column(name = "accounts_total", nullable = false)
+    private Integer accountsTotal;
+
+    @Column(name = "accounts_done", nullable = false)
+    private Integer accountsDone = 0;
+
+    @Column(name = "accounts_deferred", nullable = false)
+    private Integer accountsDeferred = 0;  // Accounts whose item was already syncing elsewhere
+
+    @Column(name = "transactions_ingested", nullable = false)
+    private Integer transactionsIngested = 0;
+
+    @Column(name = "errors", columnDefinition = "TEXT")
+    private String errors;  // One line per failed item
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;  // Refreshed by the owner; a stale job is abandoned
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
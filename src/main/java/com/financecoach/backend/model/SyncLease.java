@@ -0,0 +1,70 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DB-backed work lease shared by all app instances.
+ * A row is either a queued unit of sync work (e.g. one user's transaction sync) or the
+ * mutual-exclusion lock of a cluster-wide scheduled job. Whoever holds an unexpired lease
+ * owns the work; a crashed instance's lease simply expires and is picked up by another node.
+ */
+@Entity
+@Table(name = "sync_leases", indexes = {
+        @Index(name = "idx_sync_lease_due", columnList = "lease_type, next_run_at")
+})
+@Data
+public class SyncLease {
+
+    public static final String TYPE_TRANSACTIONS = "TRANSACTIONS";
+    public static final String TYPE_SCHEDULED_JOB = "SCHEDULED_JOB";
+    public static final String TYPE_ITEM_TRANSACTIONS = "ITEM_TRANSACTIONS";  // Webhook-triggered, one Plaid item
+    public static final String TYPE_ITEM_HOLDINGS = "ITEM_HOLDINGS";
+    public static final String TYPE_ITEM_LOCK = "ITEM_LOCK";  // Held while one Plaid item is being synced
+
+    @Id
+    @Column(name = "lease_key", length = 100)
+    private String leaseKey;  // e.g. transactions:<userId>, item-holdings:<itemId>, item-lock:<itemId>, job:net-worth-snapshots
+
+    @Column(name = "lease_type", nullable = false, length = 30)
+    private String leaseType;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "plaid_item_id")
+    private String plaidItemId;  // Set on item-level work only
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;  // Due time for queued work, null when nothing is pending
+
+    @Column(name = "owner", length = 100)
+    private String owner;  // Instance currently holding the lease
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_completed_at")
+    private LocalDateTime lastCompletedAt;
+
+    @Column(name = "failure_count", nullable = false)
+    private Integer failureCount = 0;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SyncLease() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public SyncLease(String leaseKey, String leaseType, UUID userId) {
+        this();
+        this.leaseKey = leaseKey;
+        this.leaseType = leaseType;
+        this.userId = userId;
+    }
+}
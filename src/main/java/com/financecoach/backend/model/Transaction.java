@@ -12,7 +12,9 @@ import java.util.UUID;
 @Entity
 @Table(name = "transactions", indexes = {
         @Index(name = "idx_user_date", columnList = "user_id, date"),
-        @Index(name = "idx_plaid_transaction", columnList = "plaid_transaction_id")
+        @Index(name = "idx_plaid_transaction", columnList = "plaid_transaction_id"),
+        @Index(name = "idx_transaction_merchant", columnList = "merchant_id"),
+        @Index(name = "idx_transaction_budget_category", columnList = "user_id, budget_category")
 })
 @Data
 public class Transaction {
@@ -42,9 +44,15 @@ public class Transaction {
     @Column(name = "name")  // Transaction description from Plaid
     private String name;
 
+    @Column(name = "merchant_id")
+    private Integer merchantId;  // Normalized merchant (merchants.id), set at ingest
+
     @Column(name = "category")
     private String category;
 
+    @Column(name = "budget_category")
+    private String budgetCategory;  // Resolved budget category or "Excluded", set at ingest
+
     @Column(name = "subcategory")
     private String subcategory;
 
@@ -0,0 +1,28 @@
+package com.financecoach.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Counter bumped in the same transaction as every change to a user's derived spending data
+ * (ingested pages, rollup rebuilds, sketch backfills). Analytics cache keys carry it, so every
+ * instance stops serving results computed from older data the moment the change commits.
+ */
+@Entity
+@Table(name = "user_data_versions")
+@Data
+public class UserDataVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -21,6 +21,9 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, UUID>
 
     Optional<BankAccount> findByPlaidAccountId(String plaidAccountId);
 
+    // All accounts linked through one Plaid Item (webhooks identify the item, not the account)
+    List<BankAccount> findByPlaidItemIdAndIsActive(String plaidItemId, Boolean isActive);
+
     boolean existsByPlaidAccountId(String plaidAccountId);
 
     // Find investment accounts
@@ -0,0 +1,9 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BudgetCategoryMappingRepository extends JpaRepository<BudgetCategoryMapping, Integer> {
+}
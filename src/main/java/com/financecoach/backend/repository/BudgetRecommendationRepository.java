@@ -0,0 +1,28 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.BudgetRecommendation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BudgetRecommendationRepository extends JpaRepository<BudgetRecommendation, UUID> {
+
+    List<BudgetRecommendation> findByUserId(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM BudgetRecommendation r WHERE r.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    // Rows the latest run didn't rewrite (users with no spending left in the window)
+    @Modifying
+    @Query("DELETE FROM BudgetRecommendation r WHERE r.computedAt < :before")
+    int deleteComputedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,12 +2,18 @@
 package com.financecoach.backend.repository;
 
 import com.financecoach.backend.model.Budget;
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,6 +39,76 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
     // Check if budget exists for category and month
     boolean existsByUserIdAndCategoryAndMonth(UUID userId, String category, LocalDate month);
 
+    // Check if the user has any active budget in a month
+    boolean existsByUserIdAndMonthAndIsActive(UUID userId, LocalDate month, Boolean isActive);
+
+    // Apply an ingest-time spending delta to one (user, category, month) budget, if it exists
+    @Modifying
+    @Query("UPDATE Budget b SET b.spent = COALESCE(b.spent, 0) + :delta, b.updatedAt = :now " +
+            "WHERE b.userId = :userId AND b.category = :category AND b.month = :month")
+    int applySpentDelta(@Param("userId") UUID userId,
+                        @Param("category") String category,
+                        @Param("month") LocalDate month,
+                        @Param("delta") BigDecimal delta,
+                        @Param("now") LocalDateTime now);
+
+    // Copy one user's active budgets from one month into another in a single statement, with spent
+    // for the target month taken from the rollup. Categories already present in the target are skipped.
+    @Modifying
+    @Query(value = "INSERT INTO budgets (id, user_id, category, month, amount, spent, currency_code, notes, " +
+            "alert_threshold, is_active, alert_level, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), b.user_id, b.category, :toMonth, b.amount, COALESCE(s.total, 0), b.currency_code, " +
+            "b.notes, b.alert_threshold, true, 0, :now, :now " +
+            "FROM budgets b " +
+            "LEFT JOIN (SELECT r.budget_category, SUM(r.spend) AS total FROM daily_spending_rollup r " +
+            "WHERE r.user_id = :userId AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "GROUP BY r.budget_category) s ON s.budget_category = b.category " +
+            "WHERE b.user_id = :userId AND b.month = :fromMonth AND b.is_active = true " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int copyMonth(@Param("userId") UUID userId,
+                  @Param("fromMonth") LocalDate fromMonth,
+                  @Param("toMonth") LocalDate toMonth,
+                  @Param("startDate") LocalDate startDate,
+                  @Param("endDate") LocalDate endDate,
+                  @Param("now") LocalDateTime now);
+
+    // Next page of users with active budgets in a month, keyset-paginated on user id
+    @Query("SELECT DISTINCT b.userId FROM Budget b " +
+            "WHERE b.month = :month AND b.isActive = true AND b.userId > :after " +
+            "ORDER BY b.userId")
+    List<UUID> findUserIdsWithActiveBudgets(@Param("month") LocalDate month,
+                                            @Param("after") UUID after,
+                                            Limit limit);
+
+    // Recompute spent for every active budget of these users in one aggregate join over the rollup.
+    // Rows already holding the right total are left alone.
+    @Modifying
+    @Query(value = "WITH spend AS (" +
+            "SELECT r.user_id, r.budget_category, SUM(r.spend) AS total " +
+            "FROM daily_spending_rollup r " +
+            "WHERE r.user_id IN (:userIds) AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "AND r.budget_category <> '" + BudgetCategoryMapping.EXCLUDED + "' " +
+            "GROUP BY r.user_id, r.budget_category) " +
+            "UPDATE budgets b SET spent = x.total, updated_at = :now " +
+            "FROM (SELECT b2.id, COALESCE(s.total, 0) AS total FROM budgets b2 " +
+            "LEFT JOIN spend s ON s.user_id = b2.user_id AND s.budget_category = b2.category " +
+            "WHERE b2.user_id IN (:userIds) AND b2.month = :month AND b2.is_active = true) x " +
+            "WHERE b.id = x.id AND b.spent IS DISTINCT FROM x.total", nativeQuery = true)
+    int refreshSpent(@Param("userIds") Collection<UUID> userIds,
+                     @Param("month") LocalDate month,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate,
+                     @Param("now") LocalDateTime now);
+
+    // Active budgets of these users whose alert level no longer matches their spend
+    @Query("SELECT b FROM Budget b " +
+            "WHERE b.userId IN :userIds AND b.month = :month AND b.isActive = true " +
+            "AND (CASE WHEN COALESCE(b.spent, 0) > b.amount THEN 2 " +
+            "WHEN COALESCE(b.spent, 0) * 100 >= b.amount * COALESCE(b.alertThreshold, 80) THEN 1 " +
+            "ELSE 0 END) <> COALESCE(b.alertLevel, 0)")
+    List<Budget> findAlertLevelChanges(@Param("userIds") Collection<UUID> userIds,
+                                       @Param("month") LocalDate month);
+
     // Find budgets that are exceeded
     @Query("SELECT b FROM Budget b WHERE b.userId = :userId AND b.isActive = true AND b.spent > b.amount")
     List<Budget> findExceededBudgets(@Param("userId") UUID userId);
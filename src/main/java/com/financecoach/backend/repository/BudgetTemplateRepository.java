@@ -0,0 +1,53 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.BudgetTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BudgetTemplateRepository extends JpaRepository<BudgetTemplate, UUID> {
+
+    // Budgets for :month from every template covering it, with spent already taken from the rollup
+    String ROLL_FORWARD_SQL = "INSERT INTO budgets (id, user_id, category, month, amount, spent, currency_code, notes, " +
+            "alert_threshold, is_active, alert_level, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), t.user_id, t.category, :month, t.amount, COALESCE(s.total, 0), t.currency_code, " +
+            "t.notes, t.alert_threshold, true, 0, :now, :now " +
+            "FROM budget_templates t " +
+            "LEFT JOIN (SELECT r.user_id, r.budget_category, SUM(r.spend) AS total FROM daily_spending_rollup r " +
+            "WHERE r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "AND r.user_id IN (SELECT t2.user_id FROM budget_templates t2 WHERE t2.is_active = true) " +
+            "GROUP BY r.user_id, r.budget_category) s " +
+            "ON s.user_id = t.user_id AND s.budget_category = t.category " +
+            "WHERE t.is_active = true AND t.start_month <= :month " +
+            "AND (t.end_month IS NULL OR t.end_month >= :month) ";
+
+    List<BudgetTemplate> findByUserIdAndIsActiveOrderByCategory(UUID userId, Boolean isActive);
+
+    Optional<BudgetTemplate> findByUserIdAndCategory(UUID userId, String category);
+
+    // One statement for all users; months that already have the budget are skipped by the unique key
+    @Modifying
+    @Query(value = ROLL_FORWARD_SQL + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int rollForward(@Param("month") LocalDate month,
+                    @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate,
+                    @Param("now") LocalDateTime now);
+
+    // Same, for one user's templates (applies a new template to the current month right away)
+    @Modifying
+    @Query(value = ROLL_FORWARD_SQL + "AND t.user_id = :userId ON CONFLICT DO NOTHING", nativeQuery = true)
+    int rollForwardForUser(@Param("userId") UUID userId,
+                           @Param("month") LocalDate month,
+                           @Param("startDate") LocalDate startDate,
+                           @Param("endDate") LocalDate endDate,
+                           @Param("now") LocalDateTime now);
+}
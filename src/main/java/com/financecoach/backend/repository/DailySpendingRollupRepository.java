@@ -0,0 +1,174 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import com.financecoach.backend.model.DailySpendingRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailySpendingRollupRepository extends JpaRepository<DailySpendingRollup, UUID> {
+
+    // Add a delta to one (user, date, category, budget category, merchant) cell, creating it on first use
+    @Modifying
+    @Query(value = "INSERT INTO daily_spending_rollup (id, user_id, date, category, budget_category, merchant_id, spend, income, txn_count) " +
+            "VALUES (gen_random_uuid(), :userId, :date, :category, :budgetCategory, :merchantId, :spend, :income, :txnCount) " +
+            "ON CONFLICT (user_id, date, category, budget_category, merchant_id) DO UPDATE SET " +
+            "spend = daily_spending_rollup.spend + EXCLUDED.spend, " +
+            "income = daily_spending_rollup.income + EXCLUDED.income, " +
+            "txn_count = daily_spending_rollup.txn_count + EXCLUDED.txn_count", nativeQuery = true)
+    void applyDelta(@Param("userId") UUID userId,
+                    @Param("date") LocalDate date,
+                    @Param("category") String category,
+                    @Param("budgetCategory") String budgetCategory,
+                    @Param("merchantId") Integer merchantId,
+                    @Param("spend") BigDecimal spend,
+                    @Param("income") BigDecimal income,
+                    @Param("txnCount") int txnCount);
+
+    // Serialise writers of one user's cells until commit, so a rebuild's delete + re-insert and
+    // an ingest's deltas never interleave. Ingest takes it after its transaction row locks,
+    // rebuilds after their transaction updates - always in that order.
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtext('daily_spending_rollup'), " +
+            "hashtext(CAST(:userId AS VARCHAR)))) l", nativeQuery = true)
+    long lockUser(@Param("userId") UUID userId);
+
+    // Cells whose last transaction was corrected away
+    @Modifying
+    @Query("DELETE FROM DailySpendingRollup r WHERE r.userId IN :userIds AND r.txnCount <= 0")
+    int deleteEmptyCells(@Param("userIds") Collection<UUID> userIds);
+
+    // Users with transactions but no cells yet (first deploy, restored data).
+    // Rows still waiting for a merchant id or budget category are picked up by the backfills.
+    @Query("SELECT DISTINCT t.userId FROM Transaction t " +
+            "WHERE t.merchantId IS NOT NULL AND t.budgetCategory IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM DailySpendingRollup r WHERE r.userId = t.userId)")
+    List<UUID> findUserIdsWithoutRollup();
+
+    @Modifying
+    @Query("DELETE FROM DailySpendingRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    // First day of every month the user has cells in
+    @Query(value = "SELECT DISTINCT CAST(date_trunc('month', r.date) AS date) FROM daily_spending_rollup r " +
+            "WHERE r.user_id = :userId", nativeQuery = true)
+    List<Object> findMonthsWithData(@Param("userId") UUID userId);
+
+    // Recompute one user's cells from their transactions (after lockUser and deleteByUserId).
+    // Rows not yet backfilled are skipped; the backfill that fills them rebuilds the user again.
+    @Modifying
+    @Query(value = "INSERT INTO daily_spending_rollup (id, user_id, date, category, budget_category, merchant_id, spend, income, txn_count) " +
+            "SELECT gen_random_uuid(), t.user_id, t.date, COALESCE(t.category, 'Uncategorized'), t.budget_category, t.merchant_id, " +
+            "SUM(CASE WHEN t.amount > 0 THEN t.amount ELSE 0 END), " +
+            "SUM(CASE WHEN t.amount < 0 THEN -t.amount ELSE 0 END), " +
+            "COUNT(*) " +
+            "FROM transactions t " +
+            "WHERE t.user_id = :userId AND t.merchant_id IS NOT NULL AND t.budget_category IS NOT NULL " +
+            "GROUP BY t.user_id, t.date, COALESCE(t.category, 'Uncategorized'), t.budget_category, t.merchant_id",
+            nativeQuery = true)
+    int rebuildUser(@Param("userId") UUID userId);
+
+    // Read side - spend/income semantics match the raw-transaction queries they replace
+
+    @Query("SELECT r.category, SUM(r.spend) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "GROUP BY r.category")
+    List<Object[]> sumSpendingByCategory(@Param("userId") UUID userId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    // Spending per budget category, grouped on the category stored at ingest
+    @Query("SELECT r.budgetCategory, SUM(r.spend) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "AND r.budgetCategory <> '" + BudgetCategoryMapping.EXCLUDED + "' " +
+            "GROUP BY r.budgetCategory")
+    List<Object[]> sumSpendingByBudgetCategory(@Param("userId") UUID userId,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Monthly spend series per (user, budget category) for a chunk of users
+    @Query(value = "SELECT r.user_id, r.budget_category, CAST(date_trunc('month', r.date) AS date), SUM(r.spend) " +
+            "FROM daily_spending_rollup r " +
+            "WHERE r.user_id IN (:userIds) AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "AND r.budget_category <> '" + BudgetCategoryMapping.EXCLUDED + "' " +
+            "GROUP BY r.user_id, r.budget_category, CAST(date_trunc('month', r.date) AS date)",
+            nativeQuery = true)
+    List<Object[]> sumMonthlySpendingByBudgetCategory(@Param("userIds") Collection<UUID> userIds,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+
+    // Next page of users with spending since a date, keyset-paginated on user id
+    @Query("SELECT DISTINCT r.userId FROM DailySpendingRollup r " +
+            "WHERE r.date >= :since AND r.userId > :after ORDER BY r.userId")
+    List<UUID> findUserIdsWithDataSince(@Param("since") LocalDate since,
+                                        @Param("after") UUID after,
+                                        Limit limit);
+
+    @Query("SELECT COALESCE(SUM(r.spend), 0) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate")
+    BigDecimal sumSpending(@Param("userId") UUID userId,
+                           @Param("startDate") LocalDate startDate,
+                           @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(r.income), 0) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate")
+    BigDecimal sumIncome(@Param("userId") UUID userId,
+                         @Param("startDate") LocalDate startDate,
+                         @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.merchantId, SUM(r.spend) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "GROUP BY r.merchantId ORDER BY SUM(r.spend) DESC")
+    List<Object[]> sumSpendingByMerchant(@Param("userId") UUID userId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate,
+                                         Limit limit);
+
+    @Query("SELECT r.date, SUM(r.spend) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "GROUP BY r.date ORDER BY r.date")
+    List<Object[]> sumSpendingByDate(@Param("userId") UUID userId,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.category, r.merchantId, SUM(r.spend), SUM(r.income), SUM(r.txnCount) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.category, r.merchantId")
+    List<Object[]> summarizeByCategoryAndMerchant(@Param("userId") UUID userId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    // One row per active day, for prefix sums over rolling and year-over-year windows
+    @Query("SELECT r.date, SUM(r.spend), SUM(r.income) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.date ORDER BY r.date")
+    List<Object[]> sumDailyTotals(@Param("userId") UUID userId,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+
+    // Raw cells for a range, folded in memory when one request asks for several metrics
+    @Query("SELECT r.date, r.category, r.merchantId, r.spend, r.income FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.date BETWEEN :startDate AND :endDate")
+    List<Object[]> findCells(@Param("userId") UUID userId,
+                             @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate);
+
+    // Merchant breakdown within one category
+    @Query("SELECT r.merchantId, SUM(r.spend), SUM(r.txnCount) FROM DailySpendingRollup r " +
+            "WHERE r.userId = :userId AND r.category = :category " +
+            "AND r.date BETWEEN :startDate AND :endDate AND r.spend > 0 " +
+            "GROUP BY r.merchantId")
+    List<Object[]> sumSpendingByMerchantForCategory(@Param("userId") UUID userId,
+                                                    @Param("category") String category,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+}
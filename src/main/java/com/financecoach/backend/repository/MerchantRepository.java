@@ -0,0 +1,28 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.Merchant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MerchantRepository extends JpaRepository<Merchant, Integer> {
+
+    Optional<Merchant> findByName(String name);
+
+    List<Merchant> findByNameIn(Collection<String> names);
+
+    // Register a canonical name in the caller's transaction; concurrent ingests racing on the
+    // same name both succeed
+    @Modifying
+    @Query(value = "INSERT INTO merchants (name, created_at) VALUES (:name, :now) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("now") LocalDateTime now);
+}
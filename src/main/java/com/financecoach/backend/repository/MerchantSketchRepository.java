@@ -0,0 +1,44 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.MerchantSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MerchantSketchRepository extends JpaRepository<MerchantSketch, UUID> {
+
+    // Create an empty sketch row so concurrent ingests can lock the same row
+    @Modifying
+    @Query(value = "INSERT INTO merchant_sketches (id, user_id, month, counters) " +
+            "VALUES (gen_random_uuid(), :userId, :month, '') " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("month") LocalDate month);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM MerchantSketch s WHERE s.userId = :userId AND s.month = :month")
+    Optional<MerchantSketch> lockByUserIdAndMonth(@Param("userId") UUID userId, @Param("month") LocalDate month);
+
+    List<MerchantSketch> findByUserIdAndMonthBetween(UUID userId, LocalDate startMonth, LocalDate endMonth);
+
+    @Modifying
+    @Query("DELETE FROM MerchantSketch s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    // (user_id, month) pairs that have rollup rows but no sketch yet
+    @Query(value = "SELECT DISTINCT r.user_id, CAST(date_trunc('month', r.date) AS date) " +
+            "FROM daily_spending_rollup r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM merchant_sketches s " +
+            "WHERE s.user_id = r.user_id AND s.month = CAST(date_trunc('month', r.date) AS date))",
+            nativeQuery = true)
+    List<Object[]> findMonthsWithoutSketch();
+}
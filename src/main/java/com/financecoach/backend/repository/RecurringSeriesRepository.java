@@ -0,0 +1,44 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.RecurringSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RecurringSeriesRepository extends JpaRepository<RecurringSeries, UUID> {
+
+    // Create an empty series row so concurrent ingests can lock the same row
+    @Modifying
+    @Query(value = "INSERT INTO recurring_series (id, user_id, account_id, merchant_id, direction, occurrences) " +
+            "VALUES (gen_random_uuid(), :userId, :accountId, :merchantId, :direction, '') " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId,
+                       @Param("accountId") UUID accountId,
+                       @Param("merchantId") Integer merchantId,
+                       @Param("direction") String direction);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RecurringSeries s " +
+            "WHERE s.accountId = :accountId AND s.merchantId = :merchantId AND s.direction = :direction")
+    Optional<RecurringSeries> lockSeries(@Param("accountId") UUID accountId,
+                                         @Param("merchantId") Integer merchantId,
+                                         @Param("direction") String direction);
+
+    List<RecurringSeries> findByUserIdAndPeriodDaysIsNotNull(UUID userId);
+
+    // Accounts with transactions but no series yet (first deploy)
+    @Query(value = "SELECT DISTINCT t.account_id FROM transactions t " +
+            "WHERE t.merchant_id IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM recurring_series s WHERE s.account_id = t.account_id)",
+            nativeQuery = true)
+    List<UUID> findAccountsWithoutSeries();
+}
@@ -0,0 +1,87 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.SyncJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SyncJobRepository extends JpaRepository<SyncJob, UUID> {
+
+    Optional<SyncJob> findByIdAndUserId(UUID id, UUID userId);
+
+    Optional<SyncJob> findByActiveUserId(UUID activeUserId);
+
+    // Claim the user's active slot; 0 rows means another job already holds it
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO sync_jobs (id, user_id, active_user_id, status, owner, accounts_total, " +
+            "accounts_done, accounts_deferred, transactions_ingested, created_at, heartbeat_at) " +
+            "VALUES (:id, :userId, :userId, 'QUEUED', :owner, :accountsTotal, 0, 0, 0, :now, :now) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfNoActiveJob(@Param("id") UUID id,
+                            @Param("userId") UUID userId,
+                            @Param("owner") String owner,
+                            @Param("accountsTotal") int accountsTotal,
+                            @Param("now") LocalDateTime now);
+
+    // Release the slot of a job whose instance stopped heartbeating (crash, redeploy)
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncJob j SET j.status = 'FAILED', j.activeUserId = NULL, j.finishedAt = :now, " +
+            "j.errors = 'Sync was interrupted, please try again' " +
+            "WHERE j.activeUserId = :userId AND j.heartbeatAt < :staleBefore")
+    int abandonStale(@Param("userId") UUID userId,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncJob j SET j.heartbeatAt = :now " +
+            "WHERE j.id IN :ids AND j.owner = :owner AND j.activeUserId IS NOT NULL")
+    int heartbeat(@Param("ids") Collection<UUID> ids,
+                  @Param("owner") String owner,
+                  @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncJob j SET j.status = :status, j.accountsDone = :accountsDone, " +
+            "j.accountsDeferred = :accountsDeferred, j.transactionsIngested = :transactionsIngested, " +
+            "j.errors = :errors, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.activeUserId IS NOT NULL")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("status") String status,
+                       @Param("accountsDone") int accountsDone,
+                       @Param("accountsDeferred") int accountsDeferred,
+                       @Param("transactionsIngested") int transactionsIngested,
+                       @Param("errors") String errors,
+                       @Param("now") LocalDateTime now);
+
+    // Final progress and release of the user's active slot in one statement
+    @Transactional
+    @Modifying
+    @Query("UPDATE SyncJob j SET j.status = :status, j.accountsDone = :accountsDone, " +
+            "j.accountsDeferred = :accountsDeferred, j.transactionsIngested = :transactionsIngested, " +
+            "j.errors = :errors, j.activeUserId = NULL, j.finishedAt = :now, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.activeUserId IS NOT NULL")
+    int finish(@Param("id") UUID id,
+               @Param("status") String status,
+               @Param("accountsDone") int accountsDone,
+               @Param("accountsDeferred") int accountsDeferred,
+               @Param("transactionsIngested") int transactionsIngested,
+               @Param("errors") String errors,
+               @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SyncJob j WHERE j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
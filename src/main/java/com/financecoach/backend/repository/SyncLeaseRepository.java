@@ -0,0 +1,101 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.SyncLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncLeaseRepository extends JpaRepository<SyncLease, String> {
+
+    /**
+     * Lock due, unleased work rows. SKIP LOCKED lets concurrent instances claim
+     * disjoint batches without blocking on each other.
+     */
+    @Query(value = "SELECT * FROM sync_leases " +
+            "WHERE lease_type = :leaseType AND next_run_at <= :now " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+            "ORDER BY next_run_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SyncLease> lockDueLeases(@Param("leaseType") String leaseType,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("limit") int limit);
+
+    // Take over a lease only if nobody else holds an unexpired one
+    @Modifying
+    @Query("UPDATE SyncLease l SET l.owner = :owner, l.leaseExpiresAt = :expiresAt " +
+            "WHERE l.leaseKey = :leaseKey AND (l.leaseExpiresAt IS NULL OR l.leaseExpiresAt < :now)")
+    int tryAcquire(@Param("leaseKey") String leaseKey,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Heartbeat: push out the expiry of leases this owner still holds; lost ones are left alone
+    @Modifying
+    @Query("UPDATE SyncLease l SET l.leaseExpiresAt = :expiresAt " +
+            "WHERE l.leaseKey IN :leaseKeys AND l.owner = :owner")
+    int renew(@Param("leaseKeys") Collection<String> leaseKeys,
+              @Param("owner") String owner,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Create an item's sync lock row the first time the item is synced
+    @Modifying
+    @Query(value = "INSERT INTO sync_leases (lease_key, lease_type, failure_count, created_at) " +
+            "VALUES (:leaseKey, 'ITEM_LOCK', 0, :now) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertItemLockIfAbsent(@Param("leaseKey") String leaseKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE SyncLease l SET l.owner = NULL, l.leaseExpiresAt = NULL " +
+            "WHERE l.leaseKey = :leaseKey AND l.owner = :owner")
+    int release(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+
+    // Create a scheduled-job lock row the first time a job runs; concurrent inserts are no-ops
+    @Modifying
+    @Query(value = "INSERT INTO sync_leases (lease_key, lease_type, failure_count, created_at) " +
+            "VALUES (:leaseKey, 'SCHEDULED_JOB', 0, :now) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertJobIfAbsent(@Param("leaseKey") String leaseKey, @Param("now") LocalDateTime now);
+
+    // Queue one transaction-sync row per user with an active bank account (set-based, whole fleet)
+    @Modifying
+    @Query(value = "INSERT INTO sync_leases (lease_key, lease_type, user_id, next_run_at, failure_count, created_at) " +
+            "SELECT DISTINCT 'transactions:' || CAST(ba.user_id AS VARCHAR), 'TRANSACTIONS', ba.user_id, :now, 0, :now " +
+            "FROM bank_accounts ba WHERE ba.is_active = true " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingTransactionLeases(@Param("now") LocalDateTime now);
+
+    // Re-arm idle leases (nothing scheduled) of users who have an active bank account again
+    @Modifying
+    @Query(value = "UPDATE sync_leases SET next_run_at = :now " +
+            "WHERE lease_type = 'TRANSACTIONS' AND next_run_at IS NULL " +
+            "AND user_id IN (SELECT ba.user_id FROM bank_accounts ba WHERE ba.is_active = true)", nativeQuery = true)
+    int markIdleTransactionLeasesDue(@Param("now") LocalDateTime now);
+
+    // Create an item-level work row the first time a webhook names the item
+    @Modifying
+    @Query(value = "INSERT INTO sync_leases (lease_key, lease_type, plaid_item_id, failure_count, created_at) " +
+            "VALUES (:leaseKey, :leaseType, :plaidItemId, 0, :now) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertItemLeaseIfAbsent(@Param("leaseKey") String leaseKey,
+                                @Param("leaseType") String leaseType,
+                                @Param("plaidItemId") String plaidItemId,
+                                @Param("now") LocalDateTime now);
+
+    // Make the work due now unless it is already waiting to run; a no-op (0 rows) means the
+    // event was coalesced. Work that is running right now is re-armed so the run that follows
+    // picks up whatever the event announced. Pending claims are flushed first and the context
+    // is cleared after, so a later findById in the same transaction sees the new due time.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE SyncLease l SET l.nextRunAt = :now " +
+            "WHERE l.leaseKey = :leaseKey " +
+            "AND (l.nextRunAt IS NULL OR l.nextRunAt > :now OR l.owner IS NOT NULL)")
+    int markDue(@Param("leaseKey") String leaseKey, @Param("now") LocalDateTime now);
+}
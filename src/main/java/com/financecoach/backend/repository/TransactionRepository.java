@@ -2,12 +2,18 @@
 package com.financecoach.backend.repository;
 
 import com.financecoach.backend.model.Transaction;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,10 +27,64 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     List<Transaction> findByAccountId(UUID accountId);
 
+    // Recent arrival rate, used to pick each user's sync interval
+    long countByUserIdAndDateGreaterThanEqual(UUID userId, LocalDate since);
+
     Optional<Transaction> findByPlaidTransactionId(String plaidTransactionId);
 
     boolean existsByPlaidTransactionId(String plaidTransactionId);
 
+    // Dedup a whole sync page in one round-trip. Rows are locked so a page that overlaps
+    // another write to the same rows waits for it instead of diffing a stale before-image.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.plaidTransactionId IN :plaidTransactionIds")
+    List<Transaction> lockByPlaidTransactionIdIn(@Param("plaidTransactionIds") Collection<String> plaidTransactionIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.accountId IN :accountIds AND t.plaidTransactionId IN :plaidTransactionIds")
+    List<Transaction> lockByAccountIdInAndPlaidTransactionIdIn(@Param("accountIds") Collection<UUID> accountIds,
+                                                               @Param("plaidTransactionIds") Collection<String> plaidTransactionIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Transaction t WHERE t.accountId IN :accountIds AND t.plaidTransactionId IN :plaidTransactionIds")
+    int deleteByAccountIdInAndPlaidTransactionIdIn(@Param("accountIds") Collection<UUID> accountIds,
+                                                   @Param("plaidTransactionIds") Collection<String> plaidTransactionIds);
+
+    // Keyset pagination, newest first: first page, then everything strictly after the (date, id) cursor.
+    // Both walk idx_user_date; ties within one date are broken by id.
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByUserId(@Param("userId") UUID userId,
+                                       @Param("startDate") LocalDate startDate,
+                                       @Param("endDate") LocalDate endDate,
+                                       Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "AND (t.date < :cursorDate OR (t.date = :cursorDate AND t.id < :cursorId)) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByUserIdAfter(@Param("userId") UUID userId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate,
+                                            @Param("cursorDate") LocalDate cursorDate,
+                                            @Param("cursorId") UUID cursorId,
+                                            Limit limit);
+
     @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND t.category = :category")
     List<Transaction> findByUserIdAndCategory(@Param("userId") UUID userId, @Param("category") String category);
-}
\ No newline at end of file
+
+    // Users with rows written before merchant ids existed (merchant backfill)
+    @Query("SELECT DISTINCT t.userId FROM Transaction t WHERE t.merchantId IS NULL")
+    List<UUID> findUserIdsWithoutMerchantId(Limit limit);
+
+    List<Transaction> findByUserIdAndMerchantIdIsNull(UUID userId);
+
+    // Users with rows written before budget categories were stored (budget category backfill)
+    @Query("SELECT DISTINCT t.userId FROM Transaction t WHERE t.budgetCategory IS NULL")
+    List<UUID> findUserIdsWithoutBudgetCategory(Limit limit);
+
+    List<Transaction> findByUserIdAndBudgetCategoryIsNull(UUID userId);
+
+    List<Transaction> findByAccountIdAndDateGreaterThanEqual(UUID accountId, LocalDate date);
+}
@@ -0,0 +1,27 @@
+package com.financecoach.backend.repository;
+
+import com.financecoach.backend.model.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, UUID> {
+
+    @Query("SELECT v.version FROM UserDataVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") UUID userId);
+
+    // Move the user to a new version, creating their row on first use
+    @Modifying
+    @Query(value = "INSERT INTO user_data_versions (user_id, version, updated_at) " +
+            "VALUES (:userId, 1, :now) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "version = user_data_versions.version + 1, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    void bump(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+}
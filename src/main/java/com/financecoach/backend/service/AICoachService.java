@@ -1,13 +1,12 @@
 // src/main/java/com/financecoach/userservice/service/AICoachService.java
 package com.financecoach.backend.service;
 
-import com.financecoach.backend.model.Transaction;
 import com.financecoach.backend.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -156,21 +155,18 @@ public class AICoachService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(30);
 
-        List<Transaction> categoryTransactions = transactionRepository
-                .findByUserIdAndCategory(userId, category);
+        // Merchant breakdown from the rollup, grouped on normalized merchant ids
+        Map<String, Object> breakdown = analyticsService.getCategoryMerchantBreakdown(userId, category, startDate, endDate);
 
-        Double totalCategorySpending = categoryTransactions.stream()
-                .filter(t -> t.getDate().isAfter(startDate) && t.getDate().isBefore(endDate))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        @SuppressWarnings("unchecked")
+        Map<String, BigDecimal> merchantSpending = (Map<String, BigDecimal>) breakdown.get("merchants");
+
+        Map<String, Double> merchantBreakdown = merchantSpending.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().doubleValue()));
 
-        // Get merchant breakdown
-        Map<String, Double> merchantBreakdown = categoryTransactions.stream()
-                .filter(t -> t.getDate().isAfter(startDate) && t.getDate().isBefore(endDate))
-                .collect(Collectors.groupingBy(
-                        t -> t.getMerchantName() != null ? t.getMerchantName() : "Unknown",
-                        Collectors.summingDouble(Transaction::getAmount)
-                ));
+        Double totalCategorySpending = merchantBreakdown.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
 
         String prompt = String.format("""
             Analyze the user's spending in the %s category:
@@ -191,7 +187,7 @@ public class AICoachService {
             """,
                 category,
                 totalCategorySpending,
-                categoryTransactions.size(),
+                (Long) breakdown.get("transactionCount"),
                 formatMerchantBreakdown(merchantBreakdown)
         );
 
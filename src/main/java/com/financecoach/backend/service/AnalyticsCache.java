@@ -0,0 +1,97 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.repository.UserDataVersionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded per-user cache of analytics results, keyed by user, metric and arguments.
+ *
+ * Every key carries the user's data version from user_data_versions. Whatever changes a
+ * user's spending data bumps it in the same transaction, so once the change commits no
+ * instance can serve a result computed from older data, even one that finished computing
+ * late. Entries of old versions are never looked up again and simply age out of the cache.
+ *
+ * Results are stored as read-only views, so a caller can't change what later callers get.
+ */
+@Component
+public class AnalyticsCache {
+
+    private final Cache<Key, Object> cache;
+    private final UserDataVersionRepository versionRepository;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    public AnalyticsCache(UserDataVersionRepository versionRepository,
+                          @Value("${analytics.cache.max-size:10000}") long maxSize,
+                          @Value("${analytics.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.versionRepository = versionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Return the cached result for this user/metric/arguments or compute and cache it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, String metric, List<?> args, Supplier<T> loader) {
+        // Read before computing: the loader then sees at least this version's data
+        long version = versionRepository.findVersion(userId).orElse(0L);
+        Key key = new Key(userId, version, metric, args);
+
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            metricsService.recordAnalyticsCacheHit();
+            return (T) cached;
+        }
+
+        metricsService.recordAnalyticsCacheMiss();
+        T value = (T) readOnly(loader.get());
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Invalidate everything cached for these users on every instance.
+     * Must run in the transaction that changes their data, after taking the rollup's per-user lock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bumpVersions(Collection<UUID> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        userIds.stream().sorted().forEach(userId -> versionRepository.bump(userId, now));
+    }
+
+    // Results are maps and lists, possibly nested; copies keep map order (e.g. top merchants)
+    private static Object readOnly(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(k, readOnly(v)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(element -> copy.add(readOnly(element)));
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    private record Key(UUID userId, long version, String metric, List<?> args) {
+    }
+}
@@ -1,137 +1,240 @@
 package com.financecoach.backend.service;
 
-import com.financecoach.backend.model.Transaction;
-import com.financecoach.backend.repository.TransactionRepository;
+import com.financecoach.backend.dto.AnalyticsQueryRequest;
+import com.financecoach.backend.exception.ValidationException;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import com.financecoach.backend.util.DailyPrefixSums;
+import com.financecoach.backend.util.MoneyAccumulator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class AnalyticsService {
 
-    private final TransactionRepository transactionRepository;
+    // Longest rolling window / trend length accepted
+    public static final int MAX_WINDOW_DAYS = 366;
+
+    // Widest span (first start to last end) one batched query may cover
+    public static final int MAX_QUERY_DAYS = 731;
+
+    private static final Set<String> QUERY_METRICS = Set.of(
+            "spending-by-category", "total-spending", "total-income", "top-merchants", "spending-trend");
+
+    // All aggregates read the daily rollup, never raw transactions
+    private final DailySpendingRollupRepository rollupRepository;
+
+    private final AnalyticsCache analyticsCache;
+    private final MerchantSketchService merchantSketchService;
+
+    // Rollups group on merchant ids; names are attached only to the rows returned
+    private final MerchantDictionaryService merchantDictionaryService;
+
+    // Top-merchant ranges up to this long are ranked exactly; longer ones merge monthly sketches
+    @Value("${analytics.merchant-sketch.exact-max-days:92}")
+    private long exactTopMerchantsMaxDays;
 
     @Autowired
-    public AnalyticsService(TransactionRepository transactionRepository) {
-        this.transactionRepository = transactionRepository;
+    public AnalyticsService(DailySpendingRollupRepository rollupRepository, AnalyticsCache analyticsCache,
+                            MerchantSketchService merchantSketchService,
+                            MerchantDictionaryService merchantDictionaryService) {
+        this.rollupRepository = rollupRepository;
+        this.analyticsCache = analyticsCache;
+        this.merchantSketchService = merchantSketchService;
+        this.merchantDictionaryService = merchantDictionaryService;
     }
 
     /**
      * Get spending summary by category
      */
     public Map<String, BigDecimal> getSpendingByCategory(UUID userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate);
+        return analyticsCache.get(userId, "spendingByCategory", Arrays.asList(startDate, endDate),
+                () -> computeSpendingByCategory(userId, startDate, endDate));
+    }
+
+    private Map<String, BigDecimal> computeSpendingByCategory(UUID userId, LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal> spending = new HashMap<>();
+        for (Object[] row : rollupRepository.sumSpendingByCategory(userId, startDate, endDate)) {
+            spending.put((String) row[0], (BigDecimal) row[1]);
+        }
+        return spending;
+    }
+
+    /**
+     * Get spending by budget category, as stored on each transaction at ingest.
+     * Transfers and income are left out.
+     */
+    public Map<String, BigDecimal> getSpendingByBudgetCategory(UUID userId, LocalDate startDate, LocalDate endDate) {
+        return analyticsCache.get(userId, "spendingByBudgetCategory", Arrays.asList(startDate, endDate),
+                () -> computeSpendingByBudgetCategory(userId, startDate, endDate));
+    }
 
-        return transactions.stream()
-                .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) > 0) // Only expenses (positive amounts)
-                .collect(Collectors.groupingBy(
-                        t -> t.getCategory() != null ? t.getCategory() : "Uncategorized",
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Transaction::getAmount,
-                                BigDecimal::add
-                        )
-                ));
+    private Map<String, BigDecimal> computeSpendingByBudgetCategory(UUID userId, LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal> spending = new HashMap<>();
+        for (Object[] row : rollupRepository.sumSpendingByBudgetCategory(userId, startDate, endDate)) {
+            spending.put((String) row[0], (BigDecimal) row[1]);
+        }
+        return spending;
     }
 
     /**
      * Get total spending for a period
      */
     public BigDecimal getTotalSpending(UUID userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate);
+        return analyticsCache.get(userId, "totalSpending", Arrays.asList(startDate, endDate),
+                () -> computeTotalSpending(userId, startDate, endDate));
+    }
 
-        return transactions.stream()
-                .map(Transaction::getAmount) // Only expenses
-                .filter(amount -> amount.compareTo(BigDecimal.ZERO) > 0)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BigDecimal computeTotalSpending(UUID userId, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.sumSpending(userId, startDate, endDate);
     }
 
     /**
      * Get total income for a period
      */
     public BigDecimal getTotalIncome(UUID userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate);
+        return analyticsCache.get(userId, "totalIncome", Arrays.asList(startDate, endDate),
+                () -> computeTotalIncome(userId, startDate, endDate));
+    }
 
-        return transactions.stream()
-                .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) < 0) // Only income (negative amounts in Plaid)
-                .map(t -> t.getAmount().abs()) // Use BigDecimal.abs()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private BigDecimal computeTotalIncome(UUID userId, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.sumIncome(userId, startDate, endDate);
     }
 
     /**
-     * Get top merchants by spending
+     * Get top merchants by spending.
+     * Short ranges are ranked exactly; long ranges are estimated from monthly sketches.
      */
     public Map<String, BigDecimal> getTopMerchants(UUID userId, LocalDate startDate, LocalDate endDate, int limit) {
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate);
-
-        return transactions.stream()
-                .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) > 0)
-                .collect(Collectors.groupingBy(
-                        t -> t.getMerchantName() != null ? t.getMerchantName() : t.getName(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Transaction::getAmount,
-                                BigDecimal::add
-                        )
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
-                .limit(limit)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+        return getTopMerchants(userId, startDate, endDate, limit, false);
+    }
+
+    /**
+     * Get top merchants by spending, optionally forcing an exact ranking for any range
+     */
+    public Map<String, BigDecimal> getTopMerchants(UUID userId, LocalDate startDate, LocalDate endDate, int limit,
+                                                   boolean exact) {
+        boolean useExact = exact || ChronoUnit.DAYS.between(startDate, endDate) < exactTopMerchantsMaxDays;
+        return analyticsCache.get(userId, "topMerchants", Arrays.asList(startDate, endDate, limit, useExact),
+                () -> useExact
+                        ? computeTopMerchants(userId, startDate, endDate, limit)
+                        : merchantSketchService.estimateTopMerchants(userId, startDate, endDate, limit));
+    }
+
+    private Map<String, BigDecimal> computeTopMerchants(UUID userId, LocalDate startDate, LocalDate endDate, int limit) {
+        Map<String, BigDecimal> merchants = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.sumSpendingByMerchant(userId, startDate, endDate, Limit.of(limit))) {
+            merchants.put(merchantDictionaryService.nameOf((Integer) row[0]), (BigDecimal) row[1]);
+        }
+        return merchants;
+    }
+
+    /**
+     * Spending per merchant within one category, plus the number of transactions behind it
+     */
+    public Map<String, Object> getCategoryMerchantBreakdown(UUID userId, String category,
+                                                            LocalDate startDate, LocalDate endDate) {
+        return analyticsCache.get(userId, "categoryMerchants", Arrays.asList(category, startDate, endDate),
+                () -> computeCategoryMerchantBreakdown(userId, category, startDate, endDate));
+    }
+
+    private Map<String, Object> computeCategoryMerchantBreakdown(UUID userId, String category,
+                                                                 LocalDate startDate, LocalDate endDate) {
+        Map<Integer, MoneyAccumulator> totals = new HashMap<>();
+        long transactionCount = 0;
+
+        for (Object[] row : rollupRepository.sumSpendingByMerchantForCategory(userId, category, startDate, endDate)) {
+            totals.computeIfAbsent((Integer) row[0], k -> new MoneyAccumulator()).add((BigDecimal) row[1]);
+            transactionCount += (Long) row[2];
+        }
+
+        Map<String, BigDecimal> merchants = new HashMap<>();
+        totals.forEach((merchantId, total) ->
+                merchants.merge(merchantDictionaryService.nameOf(merchantId), total.toBigDecimal(), BigDecimal::add));
+
+        Map<String, Object> breakdown = new HashMap<>();
+        breakdown.put("merchants", merchants);
+        breakdown.put("transactionCount", transactionCount);
+        return breakdown;
     }
 
     /**
      * Get spending trends (day by day)
      */
     public Map<LocalDate, BigDecimal> getSpendingTrend(UUID userId, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate);
-
-        return transactions.stream()
-                .filter(t -> t.getAmount().compareTo(BigDecimal.ZERO) > 0)
-                .collect(Collectors.groupingBy(
-                        Transaction::getDate,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Transaction::getAmount,
-                                BigDecimal::add
-                        )
-                ))
-                .entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+        return analyticsCache.get(userId, "spendingTrend", Arrays.asList(startDate, endDate),
+                () -> computeSpendingTrend(userId, startDate, endDate));
+    }
+
+    private Map<LocalDate, BigDecimal> computeSpendingTrend(UUID userId, LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, BigDecimal> trend = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.sumSpendingByDate(userId, startDate, endDate)) {
+            trend.put((LocalDate) row[0], (BigDecimal) row[1]);
+        }
+        return trend;
     }
 
     /**
-     * Get monthly summary
+     * Get monthly summary.
+     * Totals, category and merchant breakdowns and the count all come from one grouped
+     * rollup query, folded in a single pass over its (category, merchant) rows.
+     * Sums accumulate in cents and become BigDecimal only when the summary is built.
      */
     public Map<String, Object> getMonthlySummary(UUID userId, LocalDate month) {
+        return analyticsCache.get(userId, "monthlySummary", List.of(month),
+                () -> computeMonthlySummary(userId, month));
+    }
+
+    private Map<String, Object> computeMonthlySummary(UUID userId, LocalDate month) {
         LocalDate startDate = month.withDayOfMonth(1);
         LocalDate endDate = month.withDayOfMonth(month.lengthOfMonth());
 
-        BigDecimal totalSpending = getTotalSpending(userId, startDate, endDate);
-        BigDecimal totalIncome = getTotalIncome(userId, startDate, endDate);
-        Map<String, BigDecimal> categoryBreakdown = getSpendingByCategory(userId, startDate, endDate);
-        Map<String, BigDecimal> topMerchants = getTopMerchants(userId, startDate, endDate, 5);
+        MoneyAccumulator spendingTotal = new MoneyAccumulator();
+        MoneyAccumulator incomeTotal = new MoneyAccumulator();
+        long transactionCount = 0;
+        Map<String, MoneyAccumulator> categoryTotals = new HashMap<>();
+        Map<Integer, MoneyAccumulator> merchantTotals = new HashMap<>();
+
+        for (Object[] row : rollupRepository.summarizeByCategoryAndMerchant(userId, startDate, endDate)) {
+            String category = (String) row[0];
+            Integer merchantId = (Integer) row[1];
+            BigDecimal spend = (BigDecimal) row[2];
+            BigDecimal income = (BigDecimal) row[3];
+
+            spendingTotal.add(spend);
+            incomeTotal.add(income);
+            transactionCount += (Long) row[4];
+
+            // Breakdowns only cover spending, like the standalone endpoints
+            if (spend.signum() > 0) {
+                categoryTotals.computeIfAbsent(category, k -> new MoneyAccumulator()).add(spend);
+                merchantTotals.computeIfAbsent(merchantId, k -> new MoneyAccumulator()).add(spend);
+            }
+        }
+
+        BigDecimal totalSpending = spendingTotal.toBigDecimal();
+        BigDecimal totalIncome = incomeTotal.toBigDecimal();
+
+        Map<String, BigDecimal> categoryBreakdown = new HashMap<>();
+        categoryTotals.forEach((category, total) -> categoryBreakdown.put(category, total.toBigDecimal()));
+
+        Map<String, BigDecimal> topMerchants = new LinkedHashMap<>();
+        merchantTotals.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().toBigDecimal()))
+                .sorted(Map.Entry.<Integer, BigDecimal>comparingByValue().reversed())
+                .limit(5)
+                .forEachOrdered(entry -> topMerchants.put(
+                        merchantDictionaryService.nameOf(entry.getKey()), entry.getValue()));
 
         BigDecimal netCashFlow = totalIncome.subtract(totalSpending);
 
@@ -142,14 +245,13 @@ public class AnalyticsService {
         summary.put("netCashFlow", netCashFlow);
         summary.put("categoryBreakdown", categoryBreakdown);
         summary.put("topMerchants", topMerchants);
-        summary.put("transactionCount", transactionRepository
-                .findByUserIdAndDateBetween(userId, startDate, endDate).size());
+        summary.put("transactionCount", transactionCount);
 
         return summary;
     }
 
     /**
-     * Compare current month vs previous month
+     * Compare current month vs previous month (one summary scan per month)
      */
     public Map<String, Object> compareMonths(UUID userId) {
         LocalDate now = LocalDate.now();
@@ -181,4 +283,262 @@ public class AnalyticsService {
 
         return comparison;
     }
-}
\ No newline at end of file
+
+    /**
+     * Trailing spend/income over each window ending at endDate, the same window just
+     * before it, and a day-by-day trailing-sum series for the last trendDays days.
+     * One scan of daily totals feeds prefix sums, so every window is O(1).
+     */
+    public Map<String, Object> getRollingWindows(UUID userId, LocalDate endDate, List<Integer> windows, int trendDays) {
+        if (windows.isEmpty() || windows.size() > 10) {
+            throw new ValidationException("Between 1 and 10 windows can be requested");
+        }
+        for (int window : windows) {
+            if (window < 1 || window > MAX_WINDOW_DAYS) {
+                throw new ValidationException("Window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+            }
+        }
+        if (trendDays < 1 || trendDays > MAX_WINDOW_DAYS) {
+            throw new ValidationException("Trend length must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+
+        return analyticsCache.get(userId, "rolling", Arrays.asList(endDate, List.copyOf(windows), trendDays),
+                () -> computeRollingWindows(userId, endDate, windows, trendDays));
+    }
+
+    private Map<String, Object> computeRollingWindows(UUID userId, LocalDate endDate, List<Integer> windows, int trendDays) {
+        int maxWindow = windows.stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        // Far enough back for the previous window and for the first trend point's window
+        LocalDate scanStart = endDate.minusDays(Math.max(2L * maxWindow, trendDays + maxWindow) - 1);
+        DailyPrefixSums sums = DailyPrefixSums.of(scanStart, endDate,
+                rollupRepository.sumDailyTotals(userId, scanStart, endDate));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int window : windows) {
+            LocalDate windowStart = endDate.minusDays(window - 1);
+            BigDecimal spending = sums.spending(windowStart, endDate);
+            BigDecimal previousSpending = sums.spending(windowStart.minusDays(window), windowStart.minusDays(1));
+
+            Map<LocalDate, BigDecimal> trend = new LinkedHashMap<>();
+            for (LocalDate day = endDate.minusDays(trendDays - 1); !day.isAfter(endDate); day = day.plusDays(1)) {
+                trend.put(day, sums.spending(day.minusDays(window - 1), day));
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("days", window);
+            result.put("startDate", windowStart.toString());
+            result.put("totalSpending", spending);
+            result.put("totalIncome", sums.income(windowStart, endDate));
+            result.put("previousSpending", previousSpending);
+            result.put("spendingChangePercentage", percentageChange(spending, previousSpending));
+            result.put("trend", trend);
+            results.add(result);
+        }
+
+        Map<String, Object> rolling = new HashMap<>();
+        rolling.put("endDate", endDate.toString());
+        rolling.put("windows", results);
+        return rolling;
+    }
+
+    /**
+     * Month-by-month spending and income for the 12 months ending at the given month,
+     * each against the same month a year earlier, plus 12-month and year-to-date totals.
+     * Built from one 24-month scan of daily totals.
+     */
+    public Map<String, Object> getYearOverYear(UUID userId, LocalDate month) {
+        YearMonth endMonth = YearMonth.from(month);
+        return analyticsCache.get(userId, "yoy", List.of(endMonth),
+                () -> computeYearOverYear(userId, endMonth));
+    }
+
+    private Map<String, Object> computeYearOverYear(UUID userId, YearMonth endMonth) {
+        LocalDate scanStart = endMonth.minusMonths(23).atDay(1);
+        LocalDate scanEnd = endMonth.atEndOfMonth();
+        DailyPrefixSums sums = DailyPrefixSums.of(scanStart, scanEnd,
+                rollupRepository.sumDailyTotals(userId, scanStart, scanEnd));
+
+        List<Map<String, Object>> months = new ArrayList<>();
+        for (YearMonth current = endMonth.minusMonths(11); !current.isAfter(endMonth); current = current.plusMonths(1)) {
+            YearMonth previous = current.minusYears(1);
+            BigDecimal spending = sums.spending(current.atDay(1), current.atEndOfMonth());
+            BigDecimal previousSpending = sums.spending(previous.atDay(1), previous.atEndOfMonth());
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("month", current.toString());
+            entry.put("spending", spending);
+            entry.put("income", sums.income(current.atDay(1), current.atEndOfMonth()));
+            entry.put("previousYearSpending", previousSpending);
+            entry.put("previousYearIncome", sums.income(previous.atDay(1), previous.atEndOfMonth()));
+            entry.put("spendingChangePercentage", percentageChange(spending, previousSpending));
+            months.add(entry);
+        }
+
+        LocalDate yearStart = endMonth.minusMonths(11).atDay(1);
+        BigDecimal totalSpending = sums.spending(yearStart, scanEnd);
+        BigDecimal previousTotalSpending = sums.spending(scanStart, yearStart.minusDays(1));
+
+        LocalDate ytdStart = endMonth.atDay(1).withDayOfYear(1);
+        BigDecimal ytdSpending = sums.spending(ytdStart, scanEnd);
+        BigDecimal previousYtdSpending = sums.spending(ytdStart.minusYears(1), scanEnd.minusYears(1));
+
+        Map<String, Object> yoy = new HashMap<>();
+        yoy.put("month", endMonth.toString());
+        yoy.put("months", months);
+        yoy.put("totalSpending", totalSpending);
+        yoy.put("previousYearTotalSpending", previousTotalSpending);
+        yoy.put("spendingChangePercentage", percentageChange(totalSpending, previousTotalSpending));
+        yoy.put("yearToDateSpending", ytdSpending);
+        yoy.put("previousYearToDateSpending", previousYtdSpending);
+        yoy.put("yearToDateChangePercentage", percentageChange(ytdSpending, previousYtdSpending));
+        return yoy;
+    }
+
+    /**
+     * Answer several metric/range queries from one read of the rollup cells covering all
+     * of them. Each result matches what the metric's own endpoint returns for that range,
+     * including top-merchants over long ranges: unless the query sets exact, those are
+     * estimated from monthly sketches like the endpoint does rather than folded from cells.
+     */
+    public Map<String, Object> query(UUID userId, List<AnalyticsQueryRequest.MetricQuery> queries) {
+        List<QuerySpec> specs = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+
+        for (AnalyticsQueryRequest.MetricQuery query : queries) {
+            if (!QUERY_METRICS.contains(query.getMetric())) {
+                throw new ValidationException("Unknown metric: " + query.getMetric());
+            }
+            if (query.getEndDate().isBefore(query.getStartDate())) {
+                throw new ValidationException("End date must not be before start date");
+            }
+            String id = query.getId() != null ? query.getId() : query.getMetric();
+            if (!ids.add(id)) {
+                throw new ValidationException("Duplicate query id: " + id);
+            }
+            int limit = query.getLimit() != null ? query.getLimit() : 5;
+            if (limit < 1 || limit > 100) {
+                throw new ValidationException("Limit must be between 1 and 100");
+            }
+            boolean exact = Boolean.TRUE.equals(query.getExact())
+                    || ChronoUnit.DAYS.between(query.getStartDate(), query.getEndDate()) < exactTopMerchantsMaxDays;
+            specs.add(new QuerySpec(id, query.getMetric(), query.getStartDate(), query.getEndDate(), limit, exact));
+        }
+
+        LocalDate startDate = specs.stream().map(QuerySpec::startDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate endDate = specs.stream().map(QuerySpec::endDate).max(Comparator.naturalOrder()).orElseThrow();
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_QUERY_DAYS) {
+            throw new ValidationException("Queries may span at most " + MAX_QUERY_DAYS + " days in total");
+        }
+
+        return analyticsCache.get(userId, "query", List.copyOf(specs),
+                () -> computeQuery(userId, specs, startDate, endDate));
+    }
+
+    private Map<String, Object> computeQuery(UUID userId, List<QuerySpec> specs, LocalDate startDate, LocalDate endDate) {
+        List<QueryAccumulator> accumulators = specs.stream()
+                .filter(spec -> !isEstimated(spec))
+                .map(spec -> new QueryAccumulator(spec, merchantDictionaryService::nameOf))
+                .toList();
+
+        if (!accumulators.isEmpty()) {
+            for (Object[] cell : rollupRepository.findCells(userId, startDate, endDate)) {
+                for (QueryAccumulator accumulator : accumulators) {
+                    accumulator.accept(cell);
+                }
+            }
+        }
+
+        Map<String, QueryAccumulator> byId = new HashMap<>();
+        accumulators.forEach(accumulator -> byId.put(accumulator.spec.id(), accumulator));
+
+        // Results in request order
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (QuerySpec spec : specs) {
+            results.put(spec.id(), isEstimated(spec)
+                    ? merchantSketchService.estimateTopMerchants(userId, spec.startDate(), spec.endDate(), spec.limit())
+                    : byId.get(spec.id()).result());
+        }
+        return results;
+    }
+
+    private boolean isEstimated(QuerySpec spec) {
+        return "top-merchants".equals(spec.metric()) && !spec.exact();
+    }
+
+    /**
+     * Percentage change for display, 0.0 when there is nothing to compare against
+     */
+    private double percentageChange(BigDecimal current, BigDecimal previous) {
+        if (previous.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0.0;
+        }
+        return current.subtract(previous)
+                .divide(previous, 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"))
+                .doubleValue();
+    }
+
+    private record QuerySpec(String id, String metric, LocalDate startDate, LocalDate endDate, int limit,
+                             boolean exact) {
+    }
+
+    /**
+     * Folds (date, category, merchant, spend, income) cells into one query's result
+     */
+    private static class QueryAccumulator {
+        private final QuerySpec spec;
+        private final MoneyAccumulator total = new MoneyAccumulator();
+        private final Map<Object, MoneyAccumulator> groups = new HashMap<>();
+        private final Function<Integer, String> merchantNames;
+
+        private QueryAccumulator(QuerySpec spec, Function<Integer, String> merchantNames) {
+            this.spec = spec;
+            this.merchantNames = merchantNames;
+        }
+
+        private void accept(Object[] cell) {
+            LocalDate date = (LocalDate) cell[0];
+            if (date.isBefore(spec.startDate()) || date.isAfter(spec.endDate())) {
+                return;
+            }
+            BigDecimal spend = (BigDecimal) cell[3];
+
+            switch (spec.metric()) {
+                case "total-spending" -> total.add(spend);
+                case "total-income" -> total.add((BigDecimal) cell[4]);
+                default -> {
+                    // Grouped metrics only cover cells with spending, like their endpoints
+                    if (spend.signum() > 0) {
+                        Object key = switch (spec.metric()) {
+                            case "spending-by-category" -> cell[1];
+                            case "top-merchants" -> cell[2];
+                            default -> date;
+                        };
+                        groups.computeIfAbsent(key, k -> new MoneyAccumulator()).add(spend);
+                    }
+                }
+            }
+        }
+
+        private Object result() {
+            return switch (spec.metric()) {
+                case "total-spending", "total-income" -> total.toBigDecimal();
+                case "spending-by-category" -> toMap(groups.entrySet().stream());
+                case "top-merchants" -> toMap(groups.entrySet().stream()
+                        .sorted(Comparator.comparing((Map.Entry<Object, MoneyAccumulator> e) ->
+                                e.getValue().toBigDecimal()).reversed())
+                        .limit(spec.limit())
+                        .map(e -> Map.entry((Object) merchantNames.apply((Integer) e.getKey()), e.getValue())));
+                default -> toMap(groups.entrySet().stream()
+                        .sorted(Comparator.comparing(e -> (LocalDate) e.getKey())));
+            };
+        }
+
+        private static Map<Object, BigDecimal> toMap(Stream<Map.Entry<Object, MoneyAccumulator>> entries) {
+            Map<Object, BigDecimal> result = new LinkedHashMap<>();
+            entries.forEachOrdered(e -> result.put(e.getKey(), e.getValue().toBigDecimal()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.Transaction;
+import com.financecoach.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores budget categories on transactions written before they were resolved at ingest,
+ * then rebuilds the affected users' rollups so budget spending groups on them.
+ * One user per database transaction, in the background; runs once per deploy on one instance.
+ */
+@Service
+public class BudgetCategoryBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetCategoryBackfillService.class);
+
+    private static final int USER_BATCH_SIZE = 50;
+
+    private final TransactionRepository transactionRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final BudgetCategoryService budgetCategoryService;
+    private final SyncLeaseService syncLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    @Autowired
+    public BudgetCategoryBackfillService(TransactionRepository transactionRepository,
+                                         SpendingRollupService spendingRollupService,
+                                         BudgetCategoryService budgetCategoryService,
+                                         SyncLeaseService syncLeaseService,
+                                         PlatformTransactionManager transactionManager,
+                                         ThreadPoolTaskExecutor backfillExecutor) {
+        this.transactionRepository = transactionRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.budgetCategoryService = budgetCategoryService;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        backfillExecutor.execute(this::backfillBudgetCategories);
+    }
+
+    public void backfillBudgetCategories() {
+        if (!syncLeaseService.tryAcquireJob("budget-category-backfill", Duration.ofHours(2))) {
+            return;
+        }
+
+        // Resolve with the mappings table, not just the built-in defaults
+        budgetCategoryService.reloadMappings();
+
+        int users = 0;
+        // Users that failed stay uncategorized; widen each batch past them so the loop still advances
+        Set<UUID> failed = new HashSet<>();
+        List<UUID> batch;
+        while (!(batch = pendingUsers(failed)).isEmpty()) {
+            for (UUID userId : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> backfillUser(userId));
+                    users++;
+                } catch (RuntimeException e) {
+                    logger.error("Failed to backfill budget categories for user: {}", userId, e);
+                    failed.add(userId);
+                }
+            }
+        }
+
+        if (users > 0) {
+            logger.info("Stored budget categories and rebuilt rollups for {} users", users);
+        }
+    }
+
+    private List<UUID> pendingUsers(Set<UUID> failed) {
+        return transactionRepository.findUserIdsWithoutBudgetCategory(Limit.of(USER_BATCH_SIZE + failed.size()))
+                .stream()
+                .filter(userId -> !failed.contains(userId))
+                .toList();
+    }
+
+    private void backfillUser(UUID userId) {
+        List<Transaction> transactions = transactionRepository.findByUserIdAndBudgetCategoryIsNull(userId);
+        for (Transaction transaction : transactions) {
+            transaction.setBudgetCategory(budgetCategoryService.resolve(userId, transaction.getCategory()));
+        }
+        transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+
+        spendingRollupService.rebuildUser(userId);
+
+        logger.debug("Backfilled budget categories for user: {}, Transactions: {}", userId, transactions.size());
+    }
+}
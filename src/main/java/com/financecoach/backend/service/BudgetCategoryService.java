@@ -0,0 +1,117 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import com.financecoach.backend.repository.BudgetCategoryMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves a transaction's Plaid category to the budget category stored on it at ingest.
+ * Mappings come from built-in defaults overlaid with the budget_category_mappings table,
+ * with per-user rows taking precedence; the table is reloaded periodically into immutable
+ * lookup maps, so resolving is a hash lookup with no per-call allocation.
+ */
+@Service
+public class BudgetCategoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetCategoryService.class);
+
+    // Anything not mapped, including transactions without a category
+    public static final String DEFAULT_CATEGORY = "Other";
+
+    private static final Map<String, String> DEFAULT_MAPPINGS = Map.ofEntries(
+            Map.entry("FOOD_AND_DRINK", "Food & Dining"),
+            Map.entry("TRANSPORTATION", "Transportation"),
+            Map.entry("GENERAL_MERCHANDISE", "Shopping"),
+            Map.entry("GENERAL_SERVICES", "Shopping"),
+            Map.entry("SHOPS", "Shopping"),
+            Map.entry("ENTERTAINMENT", "Entertainment"),
+            Map.entry("RECREATION", "Entertainment"),
+            Map.entry("TRAVEL", "Travel"),
+            Map.entry("PERSONAL_CARE", "Personal Care"),
+            Map.entry("RENT_AND_UTILITIES", "Bills & Utilities"),
+            Map.entry("MEDICAL", "Healthcare"),
+            Map.entry("HOME_IMPROVEMENT", "Home"),
+            Map.entry("TRANSFER_IN", BudgetCategoryMapping.EXCLUDED),
+            Map.entry("TRANSFER_OUT", BudgetCategoryMapping.EXCLUDED),
+            Map.entry("INCOME", BudgetCategoryMapping.EXCLUDED)
+    );
+
+    private final BudgetCategoryMappingRepository mappingRepository;
+
+    private volatile Mappings mappings = new Mappings(DEFAULT_MAPPINGS, Map.of());
+
+    @Autowired
+    public BudgetCategoryService(BudgetCategoryMappingRepository mappingRepository) {
+        this.mappingRepository = mappingRepository;
+    }
+
+    /**
+     * Budget category for a transaction, or {@link BudgetCategoryMapping#EXCLUDED}
+     *
+     * @param userId        owner of the transaction, for per-user overrides
+     * @param plaidCategory Plaid primary category, may be null
+     */
+    public String resolve(UUID userId, String plaidCategory) {
+        if (plaidCategory == null) {
+            return DEFAULT_CATEGORY;
+        }
+
+        Mappings current = mappings;
+        Map<String, String> overrides = current.byUser().get(userId);
+        if (overrides != null) {
+            String mapped = lookup(overrides, plaidCategory);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+
+        String mapped = lookup(current.global(), plaidCategory);
+        return mapped != null ? mapped : DEFAULT_CATEGORY;
+    }
+
+    /**
+     * Rebuild the lookup maps from the mappings table; later ingests use the new mappings
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${budgets.category-mappings.reload-interval-ms:600000}")
+    public void reloadMappings() {
+        Map<String, String> global = new HashMap<>(DEFAULT_MAPPINGS);
+        Map<UUID, Map<String, String>> byUser = new HashMap<>();
+
+        for (BudgetCategoryMapping mapping : mappingRepository.findAll()) {
+            String key = mapping.getPlaidCategory().toUpperCase(Locale.ROOT);
+            if (mapping.getUserId() == null) {
+                global.put(key, mapping.getBudgetCategory());
+            } else {
+                byUser.computeIfAbsent(mapping.getUserId(), id -> new HashMap<>())
+                        .put(key, mapping.getBudgetCategory());
+            }
+        }
+
+        Map<UUID, Map<String, String>> frozen = new HashMap<>();
+        byUser.forEach((userId, overrides) -> frozen.put(userId, Map.copyOf(overrides)));
+        mappings = new Mappings(Map.copyOf(global), Map.copyOf(frozen));
+
+        logger.debug("Loaded {} budget category mappings and overrides for {} users", global.size(), frozen.size());
+    }
+
+    // Plaid sends upper-case primaries; other spellings only pay for the case fold on a miss
+    private static String lookup(Map<String, String> mappings, String plaidCategory) {
+        String mapped = mappings.get(plaidCategory);
+        return mapped != null ? mapped : mappings.get(plaidCategory.toUpperCase(Locale.ROOT));
+    }
+
+    private record Mappings(Map<String, String> global, Map<UUID, Map<String, String>> byUser) {
+    }
+}
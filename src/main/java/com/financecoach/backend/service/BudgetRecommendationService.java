@@ -0,0 +1,192 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.BudgetRecommendation;
+import com.financecoach.backend.repository.BudgetRecommendationRepository;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import com.financecoach.backend.util.BudgetRecommender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Budget suggestions per user and budget category, precomputed nightly.
+ *
+ * Each run reads the monthly spend series of recent complete months from the rollup, one
+ * aggregate query per chunk of users, and stores median, P75 and the suggested amount
+ * (see {@link BudgetRecommender}) in budget_recommendations. Serving a user's suggestions
+ * is a single indexed read of a few rows, independent of how much history they have.
+ * A run also starts in the background at startup, and users no run has covered yet get
+ * suggestions computed on the fly without storing them.
+ */
+@Service
+public class BudgetRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetRecommendationService.class);
+
+    private static final UUID FIRST_USER = new UUID(0L, 0L);
+
+    private final BudgetRecommendationRepository recommendationRepository;
+    private final DailySpendingRollupRepository rollupRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    // Complete months in each series
+    @Value("${budgets.recommendations.months:6}")
+    private int months;
+
+    // Users per aggregate query
+    @Value("${budgets.recommendations.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public BudgetRecommendationService(BudgetRecommendationRepository recommendationRepository,
+                                       DailySpendingRollupRepository rollupRepository,
+                                       SyncLeaseService syncLeaseService,
+                                       PlatformTransactionManager transactionManager,
+                                       ThreadPoolTaskExecutor backfillExecutor) {
+        this.recommendationRepository = recommendationRepository;
+        this.rollupRepository = rollupRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    /**
+     * Suggested monthly budget per category, as stored by the last run. Read-only: users that
+     * run hasn't covered yet (e.g. new since last night) get theirs computed but not stored.
+     */
+    public Map<String, BigDecimal> getRecommendations(UUID userId) {
+        List<BudgetRecommendation> rows = recommendationRepository.findByUserId(userId);
+        if (rows.isEmpty()) {
+            rows = compute(List.of(userId), LocalDateTime.now());
+        }
+
+        Map<String, BigDecimal> recommendations = new TreeMap<>();
+        for (BudgetRecommendation row : rows) {
+            recommendations.put(row.getCategory(), row.getRecommendedAmount());
+        }
+        return recommendations;
+    }
+
+    /**
+     * Fill budget_recommendations after a deploy rather than waiting for the nightly run
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleInitialRun() {
+        backfillExecutor.execute(this::recomputeAll);
+    }
+
+    /**
+     * Recompute every user's suggestions (3:30 AM daily)
+     */
+    @Scheduled(cron = "${budgets.recommendations.cron:0 30 3 * * *}")
+    public void recomputeAll() {
+        if (!syncLeaseService.tryAcquireJob("budget-recommendations", Duration.ofHours(1))) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        LocalDate since = LocalDate.now().withDayOfMonth(1).minusMonths(months);
+        int users = 0;
+        int stored = 0;
+
+        UUID after = FIRST_USER;
+        List<UUID> chunk;
+        while (!(chunk = rollupRepository.findUserIdsWithDataSince(since, after, Limit.of(chunkSize))).isEmpty()) {
+            List<UUID> userIds = chunk;
+            stored += transactionTemplate.execute(status -> recomputeChunk(userIds, runStartedAt)).size();
+            users += chunk.size();
+            after = chunk.get(chunk.size() - 1);
+        }
+
+        int removed = transactionTemplate.execute(status -> recommendationRepository.deleteComputedBefore(runStartedAt));
+
+        logger.info("Budget recommendations computed in {}ms. Users: {}, Recommendations: {}, Removed: {}",
+                System.currentTimeMillis() - startTime, users, stored, removed);
+    }
+
+    private List<BudgetRecommendation> recomputeChunk(List<UUID> userIds, LocalDateTime computedAt) {
+        List<BudgetRecommendation> recommendations = compute(userIds, computedAt);
+        recommendationRepository.deleteByUserIdIn(userIds);
+        return recommendationRepository.saveAll(recommendations);
+    }
+
+    /**
+     * Recommendations for these users from the rollup, not yet stored
+     */
+    private List<BudgetRecommendation> compute(List<UUID> userIds, LocalDateTime computedAt) {
+        LocalDate windowEnd = LocalDate.now().withDayOfMonth(1).minusMonths(1);  // Last complete month
+        LocalDate windowStart = windowEnd.minusMonths(months - 1);
+
+        // user -> category -> month -> spend, plus each user's first month with any spending
+        Map<UUID, Map<String, Map<LocalDate, BigDecimal>>> series = new HashMap<>();
+        Map<UUID, LocalDate> firstMonths = new HashMap<>();
+        for (Object[] row : rollupRepository.sumMonthlySpendingByBudgetCategory(
+                userIds, windowStart, windowEnd.plusMonths(1).minusDays(1))) {
+            UUID userId = (UUID) row[0];
+            LocalDate month = row[2] instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) row[2];
+
+            series.computeIfAbsent(userId, id -> new HashMap<>())
+                    .computeIfAbsent((String) row[1], category -> new HashMap<>())
+                    .put(month, (BigDecimal) row[3]);
+            firstMonths.merge(userId, month, (a, b) -> a.isBefore(b) ? a : b);
+        }
+
+        List<BudgetRecommendation> recommendations = new ArrayList<>();
+        series.forEach((userId, categories) -> {
+            // Months before the user's first spending aren't zero-spend months
+            LocalDate firstMonth = firstMonths.get(userId);
+            int length = (int) ChronoUnit.MONTHS.between(firstMonth, windowEnd) + 1;
+
+            categories.forEach((category, byMonth) -> {
+                long[] monthly = new long[length];
+                for (int i = 0; i < length; i++) {
+                    BigDecimal spend = byMonth.get(firstMonth.plusMonths(i));
+                    monthly[i] = spend != null ? toMinorUnits(spend) : 0;
+                }
+
+                BudgetRecommender.Recommendation result = BudgetRecommender.recommend(monthly);
+                if (result.recommended() > 0) {
+                    BudgetRecommendation recommendation = new BudgetRecommendation();
+                    recommendation.setUserId(userId);
+                    recommendation.setCategory(category);
+                    recommendation.setMedianSpend(BigDecimal.valueOf(result.median(), 2));
+                    recommendation.setP75Spend(BigDecimal.valueOf(result.p75(), 2));
+                    recommendation.setRecommendedAmount(BigDecimal.valueOf(result.recommended(), 2));
+                    recommendation.setMonthsObserved(result.monthsUsed());
+                    recommendation.setComputedAt(computedAt);
+                    recommendations.add(recommendation);
+                }
+            });
+        });
+        return recommendations;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
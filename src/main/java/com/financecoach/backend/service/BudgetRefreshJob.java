@@ -0,0 +1,136 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.BudgetAlertEvent;
+import com.financecoach.backend.model.Budget;
+import com.financecoach.backend.repository.BudgetRepository;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fleet-wide refresh of the current month's budgets.
+ *
+ * Users are walked in chunks; each chunk takes ingest's per-user locks, recomputes spent for
+ * all its active budgets with one aggregate join over daily_spending_rollup, then compares every
+ * budget's alert level with the level stored by the previous run. Upward crossings publish a
+ * {@link BudgetAlertEvent} once the chunk commits. Ingest keeps spent current between runs, so this mainly reconciles
+ * drift and turns threshold crossings into alerts.
+ */
+@Service
+public class BudgetRefreshJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetRefreshJob.class);
+
+    private static final UUID FIRST_USER = new UUID(0L, 0L);
+
+    private final BudgetRepository budgetRepository;
+    private final DailySpendingRollupRepository rollupRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final MetricsService metricsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Users per aggregate statement
+    @Value("${budgets.refresh.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public BudgetRefreshJob(BudgetRepository budgetRepository,
+                            DailySpendingRollupRepository rollupRepository,
+                            SyncLeaseService syncLeaseService,
+                            MetricsService metricsService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.metricsService = metricsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${budgets.refresh.interval-ms:900000}")
+    public void refreshCurrentMonth() {
+        if (!syncLeaseService.tryAcquireJob("budget-refresh", Duration.ofMinutes(10))) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        int users = 0;
+        int refreshed = 0;
+        int alerts = 0;
+
+        UUID after = FIRST_USER;
+        List<UUID> chunk;
+        while (!(chunk = budgetRepository.findUserIdsWithActiveBudgets(month, after, Limit.of(chunkSize))).isEmpty()) {
+            List<UUID> userIds = chunk;
+            ChunkResult result = transactionTemplate.execute(status -> refreshChunk(userIds, month));
+
+            // Listeners and metrics only ever see levels that have been committed
+            for (BudgetAlertEvent alert : result.alerts()) {
+                eventPublisher.publishEvent(alert);
+                metricsService.recordBudgetAlert();
+                if (alert.level() == Budget.ALERT_EXCEEDED) {
+                    metricsService.recordBudgetExceeded();
+                }
+            }
+
+            users += chunk.size();
+            refreshed += result.refreshed();
+            alerts += result.alerts().size();
+            after = chunk.get(chunk.size() - 1);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        metricsService.recordBudgetRefreshDuration(duration);
+
+        if (users > 0) {
+            logger.info("Budget refresh completed in {}ms. Users: {}, Budgets updated: {}, Alerts: {}",
+                    duration, users, refreshed, alerts);
+        }
+    }
+
+    private ChunkResult refreshChunk(List<UUID> userIds, LocalDate month) {
+        // Ingest's per-user lock: pages for these users wait, so the aggregate below sees every
+        // committed delta and no applySpentDelta lands between it and the alert comparison
+        userIds.stream().sorted().forEach(rollupRepository::lockUser);
+
+        int refreshed = budgetRepository.refreshSpent(userIds, month, month,
+                month.plusMonths(1).minusDays(1), LocalDateTime.now());
+
+        List<BudgetAlertEvent> alerts = new ArrayList<>();
+        for (Budget budget : budgetRepository.findAlertLevelChanges(userIds, month)) {
+            int previous = budget.getAlertLevel() != null ? budget.getAlertLevel() : Budget.ALERT_NONE;
+            int level = budget.evaluateAlertLevel();
+
+            // Dropping back (refunds, a raised amount) re-arms the alert without raising one
+            if (level > previous) {
+                alerts.add(new BudgetAlertEvent(budget.getId(), budget.getUserId(), budget.getCategory(),
+                        month, level, budget.getSpent(), budget.getAmount()));
+            }
+            // Managed entity - flushed as a batched UPDATE on commit
+            budget.setAlertLevel(level);
+        }
+
+        return new ChunkResult(refreshed, alerts);
+    }
+
+    private record ChunkResult(int refreshed, List<BudgetAlertEvent> alerts) {
+    }
+}
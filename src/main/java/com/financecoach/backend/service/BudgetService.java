@@ -8,7 +8,9 @@ import com.financecoach.backend.exception.NoPreviousBudgetsException;
 import com.financecoach.backend.exception.UnauthorizedAccessException;
 import com.financecoach.backend.exception.ValidationException;
 import com.financecoach.backend.model.Budget;
+import com.financecoach.backend.model.BudgetCategoryMapping;
 import com.financecoach.backend.repository.BudgetRepository;
+import com.financecoach.backend.util.MoneyAccumulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +20,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,58 +34,18 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final AnalyticsService analyticsService;
+    private final BudgetRecommendationService budgetRecommendationService;
 
     @Autowired
     private MetricsService metricsService;
 
     @Autowired
-    public BudgetService(BudgetRepository budgetRepository, AnalyticsService analyticsService) {
+    public BudgetService(BudgetRepository budgetRepository,
+                         AnalyticsService analyticsService,
+                         BudgetRecommendationService budgetRecommendationService) {
         this.budgetRepository = budgetRepository;
         this.analyticsService = analyticsService;
-    }
-
-    /**
-     * Map Plaid transaction categories to user-friendly budget categories
-     */
-    private String mapPlaidCategoryToBudgetCategory(String plaidCategory) {
-        if (plaidCategory == null) return "Other";
-
-        return switch (plaidCategory.toUpperCase()) {
-            case "FOOD_AND_DRINK" -> "Food & Dining";
-            case "TRANSPORTATION" -> "Transportation";
-            case "GENERAL_MERCHANDISE", "GENERAL_SERVICES", "SHOPS" -> "Shopping";
-            case "ENTERTAINMENT", "RECREATION" -> "Entertainment";
-            case "TRAVEL" -> "Travel";
-            case "PERSONAL_CARE" -> "Personal Care";
-            case "RENT_AND_UTILITIES" -> "Bills & Utilities";
-            case "MEDICAL" -> "Healthcare";
-            case "HOME_IMPROVEMENT" -> "Home";
-            case "TRANSFER_IN", "TRANSFER_OUT" -> null; // Exclude transfers
-            case "INCOME" -> null; // Exclude income
-            default -> "Other";
-        };
-    }
-
-    /**
-     * Map raw Plaid categories to budget categories, combining similar categories
-     */
-    private Map<String, BigDecimal> mapCategoriesToBudgetCategories(Map<String, BigDecimal> rawSpending) {
-        Map<String, BigDecimal> mappedSpending = new HashMap<>();
-
-        for (Map.Entry<String, BigDecimal> entry : rawSpending.entrySet()) {
-            String budgetCategory = mapPlaidCategoryToBudgetCategory(entry.getKey());
-
-            // Skip null categories (transfers, income)
-            if (budgetCategory != null) {
-                mappedSpending.merge(
-                        budgetCategory,
-                        entry.getValue(),
-                        BigDecimal::add  // Use BigDecimal.add instead of Double::sum
-                );
-            }
-        }
-
-        return mappedSpending;
+        this.budgetRecommendationService = budgetRecommendationService;
     }
 
     /**
@@ -99,6 +62,11 @@ public class BudgetService {
             throw new ValidationException("Category is required");
         }
 
+        if (BudgetCategoryMapping.EXCLUDED.equals(request.getCategory())) {
+            logger.error("Budget creation failed - category is reserved: {}", request.getCategory());
+            throw new ValidationException("Category '" + BudgetCategoryMapping.EXCLUDED + "' cannot be budgeted");
+        }
+
         if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
             logger.error("Budget creation failed - invalid amount: {}", request.getAmount());
             throw new ValidationException("Budget amount must be positive");
@@ -150,8 +118,7 @@ public class BudgetService {
         LocalDate startDate = month;
         LocalDate endDate = month.plusMonths(1).minusDays(1);
 
-        Map<String, BigDecimal> plaidSpending = analyticsService.getSpendingByCategory(userId, startDate, endDate);
-        Map<String, BigDecimal> categorySpending = mapCategoriesToBudgetCategories(plaidSpending);
+        Map<String, BigDecimal> categorySpending = analyticsService.getSpendingByBudgetCategory(userId, startDate, endDate);
         BigDecimal spent = categorySpending.getOrDefault(request.getCategory(), BigDecimal.ZERO);
         budget.updateSpent(spent);
 
@@ -177,8 +144,10 @@ public class BudgetService {
     }
 
     /**
-     * Get budgets for a specific month
+     * Get budgets for a specific month.
+     * Read-only: spent amounts are kept current at ingest by {@link BudgetSpendingUpdater}.
      */
+    @Transactional(readOnly = true)
     public BudgetSummaryResponse getBudgetsForMonth(UUID userId, LocalDate month) {
         // Normalize to first day of month
         LocalDate normalizedMonth = month.withDayOfMonth(1);
@@ -187,35 +156,21 @@ public class BudgetService {
         List<Budget> budgets = budgetRepository.findByUserIdAndMonthAndIsActive(
                 userId, normalizedMonth, true);
 
-        // Calculate actual spending for each category
-        LocalDate startDate = normalizedMonth;
-        LocalDate endDate = normalizedMonth.plusMonths(1).minusDays(1);
-
-        Map<String, BigDecimal> rawSpending = analyticsService.getSpendingByCategory(userId, startDate, endDate);
-        Map<String, BigDecimal> actualSpending = mapCategoriesToBudgetCategories(rawSpending);
-
-        // Update spent amounts
-        for (Budget budget : budgets) {
-            BigDecimal spent = actualSpending.getOrDefault(budget.getCategory(), BigDecimal.ZERO);
-
-            if (spent.compareTo(budget.getSpent()) != 0) {
-                budget.updateSpent(spent);
-                budgetRepository.save(budget);
-            }
-        }
-
         // Convert to responses
         List<BudgetResponse> budgetResponses = budgets.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
 
-        BigDecimal totalBudget = budgets.stream()
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Totals accumulate in cents; converted once for the response
+        MoneyAccumulator budgetTotal = new MoneyAccumulator();
+        MoneyAccumulator spentTotal = new MoneyAccumulator();
+        for (Budget budget : budgets) {
+            budgetTotal.add(budget.getAmount());
+            spentTotal.add(budget.getSpent());
+        }
 
-        BigDecimal totalSpent = budgets.stream()
-                .map(Budget::getSpent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalBudget = budgetTotal.toBigDecimal();
+        BigDecimal totalSpent = spentTotal.toBigDecimal();
 
         BigDecimal totalRemaining = totalBudget.subtract(totalSpent);
 
@@ -295,32 +250,10 @@ public class BudgetService {
     }
 
     /**
-     * Get budget recommendations based on historical spending
+     * Get budget recommendations based on historical spending (precomputed nightly)
      */
     public Map<String, BigDecimal> getBudgetRecommendations(UUID userId) {
-        // Get last 3 months of spending
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusMonths(3);
-
-        Map<String, BigDecimal> rawSpending = analyticsService.getSpendingByCategory(userId, startDate, endDate);
-        Map<String, BigDecimal> categorySpending = mapCategoriesToBudgetCategories(rawSpending);
-
-        // Calculate average monthly spending per category and add 10% buffer
-        return categorySpending.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> {
-                            // Average over 3 months
-                            BigDecimal average = entry.getValue()
-                                    .divide(new BigDecimal("3"), 2, RoundingMode.HALF_UP);
-
-                            // Add 10% buffer
-                            BigDecimal withBuffer = average.multiply(new BigDecimal("1.1"));
-
-                            // Round up to nearest dollar
-                            return withBuffer.setScale(0, RoundingMode.CEILING);
-                        }
-                ));
+        return budgetRecommendationService.getRecommendations(userId);
     }
 
     /**
@@ -356,8 +289,7 @@ public class BudgetService {
         // Calculate actual spending
         LocalDate startDate = normalizedMonth;
         LocalDate endDate = normalizedMonth.plusMonths(1).minusDays(1);
-        Map<String, BigDecimal> rawSpending = analyticsService.getSpendingByCategory(userId, startDate, endDate);
-        Map<String, BigDecimal> actualSpending = mapCategoriesToBudgetCategories(rawSpending);
+        Map<String, BigDecimal> actualSpending = analyticsService.getSpendingByBudgetCategory(userId, startDate, endDate);
 
         // Update each budget
         for (Budget budget : budgets) {
@@ -368,7 +300,8 @@ public class BudgetService {
     }
 
     /**
-     * Copy budgets from previous month to current month
+     * Copy budgets from previous month to current month.
+     * One INSERT ... SELECT copies every missing category with its spending already filled in.
      */
     @Transactional
     public List<BudgetResponse> copyPreviousMonthBudgets(UUID userId) {
@@ -377,48 +310,23 @@ public class BudgetService {
         LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
         LocalDate previousMonth = currentMonth.minusMonths(1);
 
-        // Get previous month's budgets
-        List<Budget> previousBudgets = budgetRepository.findByUserIdAndMonthAndIsActive(
-                userId, previousMonth, true);
-
-        if (previousBudgets.isEmpty()) {
+        if (!budgetRepository.existsByUserIdAndMonthAndIsActive(userId, previousMonth, true)) {
             logger.warn("No previous budgets found for user: {}", userId);
             throw new NoPreviousBudgetsException();
         }
 
-        logger.debug("Found {} budgets to copy from previous month", previousBudgets.size());
-
-        List<Budget> newBudgets = previousBudgets.stream()
-                .map(prevBudget -> {
-                    // Check if budget already exists for current month
-                    boolean exists = budgetRepository.existsByUserIdAndCategoryAndMonth(
-                            userId, prevBudget.getCategory(), currentMonth);
-
-                    if (!exists) {
-                        logger.debug("Copying budget - Category: {}, Amount: {}",
-                                prevBudget.getCategory(), prevBudget.getAmount());
-
-                        Budget newBudget = new Budget(
-                                userId,
-                                prevBudget.getCategory(),
-                                currentMonth,
-                                prevBudget.getAmount()
-                        );
-                        newBudget.setNotes(prevBudget.getNotes());
-                        newBudget.setAlertThreshold(prevBudget.getAlertThreshold());
-                        return budgetRepository.save(newBudget);
-                    }
-                    return null;
-                })
-                .filter(budget -> budget != null)
-                .collect(Collectors.toList());
+        // Budgets already in the current month (including deleted ones) are not copied over
+        Set<UUID> existingIds = budgetRepository.findByUserIdAndMonth(userId, currentMonth).stream()
+                .map(Budget::getId)
+                .collect(Collectors.toSet());
 
-        // Refresh spending for new budgets
-        refreshAllBudgetSpending(userId, currentMonth);
+        int copied = budgetRepository.copyMonth(userId, previousMonth, currentMonth,
+                currentMonth, currentMonth.plusMonths(1).minusDays(1), LocalDateTime.now());
 
-        logger.info("Successfully copied {} budgets for user: {}", newBudgets.size(), userId);
+        logger.info("Successfully copied {} budgets for user: {}", copied, userId);
 
-        return newBudgets.stream()
+        return budgetRepository.findByUserIdAndMonthAndIsActive(userId, currentMonth, true).stream()
+                .filter(budget -> !existingIds.contains(budget.getId()))
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
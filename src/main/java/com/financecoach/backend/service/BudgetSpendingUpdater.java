@@ -0,0 +1,86 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.TransactionsIngestedEvent;
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import com.financecoach.backend.repository.BudgetRepository;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import com.financecoach.backend.util.MoneyAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps Budget.spent current as transactions are ingested.
+ * Each changed row backs out its old spending and adds its new one to the matching
+ * (user, budget category, month) budget, inside the ingestion transaction.
+ */
+@Service
+public class BudgetSpendingUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetSpendingUpdater.class);
+
+    private final BudgetRepository budgetRepository;
+    private final DailySpendingRollupRepository rollupRepository;
+
+    @Autowired
+    public BudgetSpendingUpdater(BudgetRepository budgetRepository,
+                                 DailySpendingRollupRepository rollupRepository) {
+        this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    @EventListener
+    public void onTransactionsIngested(TransactionsIngestedEvent event) {
+        // Per-user lock (re-entrant, also taken for the rollup) before any budget row is
+        // touched, so this page and a budget refresh always lock in the same order
+        event.userIds().stream().sorted().forEach(rollupRepository::lockUser);
+
+        Map<BudgetKey, MoneyAccumulator> deltas = new HashMap<>();
+
+        for (TransactionsIngestedEvent.Change change : event.changes()) {
+            if (change.before() != null) {
+                accumulate(deltas, change.before(), false);
+            }
+            if (change.after() != null) {
+                accumulate(deltas, change.after(), true);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (Map.Entry<BudgetKey, MoneyAccumulator> entry : deltas.entrySet()) {
+            if (!entry.getValue().isZero()) {
+                BudgetKey key = entry.getKey();
+                updated += budgetRepository.applySpentDelta(key.userId(), key.category(), key.month(),
+                        entry.getValue().toBigDecimal(), now);
+            }
+        }
+
+        logger.debug("Applied {} budget spending deltas, Budgets updated: {}", deltas.size(), updated);
+    }
+
+    private void accumulate(Map<BudgetKey, MoneyAccumulator> deltas, TransactionsIngestedEvent.Snapshot row, boolean add) {
+        // Budgets track spending only (positive Plaid amounts), like the category totals
+        if (row.amount().signum() <= 0) {
+            return;
+        }
+        if (BudgetCategoryMapping.EXCLUDED.equals(row.budgetCategory())) {
+            return;  // Transfers and income
+        }
+
+        BudgetKey key = new BudgetKey(row.userId(), row.budgetCategory(), row.date().withDayOfMonth(1));
+        deltas.computeIfAbsent(key, k -> new MoneyAccumulator())
+                .add(add ? row.amount() : row.amount().negate());
+    }
+
+    private record BudgetKey(UUID userId, String category, LocalDate month) {
+    }
+}
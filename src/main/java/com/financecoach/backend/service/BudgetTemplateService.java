@@ -0,0 +1,154 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.dto.BudgetTemplateRequest;
+import com.financecoach.backend.dto.BudgetTemplateResponse;
+import com.financecoach.backend.exception.BudgetTemplateNotFoundException;
+import com.financecoach.backend.exception.UnauthorizedAccessException;
+import com.financecoach.backend.exception.ValidationException;
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import com.financecoach.backend.model.BudgetTemplate;
+import com.financecoach.backend.repository.BudgetTemplateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recurring budget templates and their monthly rollover.
+ * Rolling forward is one INSERT ... SELECT for all users, so a month start costs a single
+ * statement rather than queries per user; it runs daily, so a missed run catches up and
+ * repeated runs are no-ops.
+ */
+@Service
+public class BudgetTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetTemplateService.class);
+
+    private final BudgetTemplateRepository templateRepository;
+    private final SyncLeaseService syncLeaseService;
+
+    @Autowired
+    public BudgetTemplateService(BudgetTemplateRepository templateRepository,
+                                 SyncLeaseService syncLeaseService) {
+        this.templateRepository = templateRepository;
+        this.syncLeaseService = syncLeaseService;
+    }
+
+    /**
+     * Create or update the template for a category; the current month's budget is created
+     * right away when the template covers it and none exists yet
+     */
+    @Transactional
+    public BudgetTemplateResponse createOrUpdateTemplate(UUID userId, BudgetTemplateRequest request) {
+        logger.info("Creating/updating budget template for user: {}, category: {}", userId, request.getCategory());
+
+        if (BudgetCategoryMapping.EXCLUDED.equals(request.getCategory())) {
+            throw new ValidationException("Category '" + BudgetCategoryMapping.EXCLUDED + "' cannot be budgeted");
+        }
+
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDate startMonth = request.getStartMonth() != null
+                ? request.getStartMonth().withDayOfMonth(1)
+                : currentMonth;
+        LocalDate endMonth = request.getEndMonth() != null ? request.getEndMonth().withDayOfMonth(1) : null;
+        if (endMonth != null && endMonth.isBefore(startMonth)) {
+            throw new ValidationException("End month must not be before start month");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BudgetTemplate template = templateRepository.findByUserIdAndCategory(userId, request.getCategory())
+                .orElseGet(() -> {
+                    BudgetTemplate created = new BudgetTemplate();
+                    created.setUserId(userId);
+                    created.setCategory(request.getCategory());
+                    created.setCreatedAt(now);
+                    return created;
+                });
+
+        template.setAmount(request.getAmount());
+        template.setNotes(request.getNotes());
+        if (request.getAlertThreshold() != null) {
+            template.setAlertThreshold(request.getAlertThreshold());
+        }
+        template.setStartMonth(startMonth);
+        template.setEndMonth(endMonth);
+        template.setIsActive(true);
+        template.setUpdatedAt(now);
+
+        BudgetTemplate saved = templateRepository.saveAndFlush(template);
+
+        templateRepository.rollForwardForUser(userId, currentMonth,
+                currentMonth, currentMonth.plusMonths(1).minusDays(1), now);
+
+        return convertToResponse(saved);
+    }
+
+    public List<BudgetTemplateResponse> getTemplates(UUID userId) {
+        return templateRepository.findByUserIdAndIsActiveOrderByCategory(userId, true).stream()
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    /**
+     * Stop rolling a template forward; budgets it already created stay
+     */
+    @Transactional
+    public void deleteTemplate(UUID templateId, UUID userId) {
+        BudgetTemplate template = templateRepository.findById(templateId)
+                .orElseThrow(() -> new BudgetTemplateNotFoundException(templateId));
+
+        if (!template.getUserId().equals(userId)) {
+            logger.warn("Unauthorized attempt to delete budget template: {} by user: {}", templateId, userId);
+            throw new UnauthorizedAccessException("budget template");
+        }
+
+        template.setIsActive(false);
+        template.setUpdatedAt(LocalDateTime.now());
+        templateRepository.save(template);
+        logger.info("Budget template deactivated: {}", templateId);
+    }
+
+    /**
+     * Create the current month's budgets from every active template (daily, 00:10)
+     */
+    @Scheduled(cron = "${budgets.templates.rollover-cron:0 10 0 * * *}")
+    @Transactional
+    public void rollForwardTemplates() {
+        if (!syncLeaseService.tryAcquireJob("budget-template-rollover", Duration.ofMinutes(30))) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+
+        int created = templateRepository.rollForward(month, month, month.plusMonths(1).minusDays(1), LocalDateTime.now());
+
+        if (created > 0) {
+            logger.info("Rolled {} budget templates forward into {} in {}ms",
+                    created, month, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private BudgetTemplateResponse convertToResponse(BudgetTemplate template) {
+        return new BudgetTemplateResponse(
+                template.getId(),
+                template.getCategory(),
+                template.getAmount(),
+                template.getCurrencyCode(),
+                template.getNotes(),
+                template.getAlertThreshold(),
+                template.getStartMonth(),
+                template.getEndMonth(),
+                template.getCreatedAt(),
+                template.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.exception.ValidationException;
+import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.RecurringSeries;
+import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.repository.RecurringSeriesRepository;
+import com.financecoach.backend.util.MoneyAccumulator;
+import com.financecoach.backend.util.RecurrenceDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Projects account balances forward from the recurring series detected at ingest.
+ * A request reads the user's accounts and recurring series only; no transaction history.
+ */
+@Service
+public class CashFlowForecastService {
+
+    // Longest horizon accepted
+    public static final int MAX_HORIZON_DAYS = 365;
+
+    private final BankAccountRepository bankAccountRepository;
+    private final RecurringSeriesRepository seriesRepository;
+    private final MerchantDictionaryService merchantDictionaryService;
+    private final AnalyticsCache analyticsCache;
+
+    @Autowired
+    public CashFlowForecastService(BankAccountRepository bankAccountRepository,
+                                   RecurringSeriesRepository seriesRepository,
+                                   MerchantDictionaryService merchantDictionaryService,
+                                   AnalyticsCache analyticsCache) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.seriesRepository = seriesRepository;
+        this.merchantDictionaryService = merchantDictionaryService;
+        this.analyticsCache = analyticsCache;
+    }
+
+    /**
+     * Projected balance of each active account at each horizon, with the recurring
+     * inflows and outflows expected before the longest one
+     */
+    public Map<String, Object> getForecast(UUID userId, List<Integer> horizons) {
+        if (horizons.isEmpty() || horizons.size() > 10) {
+            throw new ValidationException("Between 1 and 10 horizons can be requested");
+        }
+        for (int horizon : horizons) {
+            if (horizon < 1 || horizon > MAX_HORIZON_DAYS) {
+                throw new ValidationException("Horizon must be between 1 and " + MAX_HORIZON_DAYS + " days");
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Integer> sortedHorizons = horizons.stream().distinct().sorted().toList();
+        return analyticsCache.get(userId, "forecast", Arrays.asList(today, sortedHorizons),
+                () -> computeForecast(userId, today, sortedHorizons));
+    }
+
+    private Map<String, Object> computeForecast(UUID userId, LocalDate today, List<Integer> horizons) {
+        LocalDate until = today.plusDays(horizons.get(horizons.size() - 1));
+
+        Map<UUID, List<RecurringSeries>> seriesByAccount = seriesRepository.findByUserIdAndPeriodDaysIsNotNull(userId)
+                .stream()
+                .collect(Collectors.groupingBy(RecurringSeries::getAccountId));
+
+        List<Map<String, Object>> accounts = new ArrayList<>();
+        for (BankAccount account : bankAccountRepository.findByUserIdAndIsActive(userId, true)) {
+            List<Occurrence> upcoming = new ArrayList<>();
+            for (RecurringSeries series : seriesByAccount.getOrDefault(account.getId(), List.of())) {
+                // A series that missed two of its cycles has most likely ended
+                if (series.getLastDate().plusDays(2L * series.getPeriodDays()).isBefore(today)) {
+                    continue;
+                }
+                String merchant = merchantDictionaryService.nameOf(series.getMerchantId());
+                for (LocalDate date : RecurrenceDetector.project(series.getPreviousDate(),
+                        series.getLastDate(), series.getPeriodDays(), today.plusDays(1), until)) {
+                    upcoming.add(new Occurrence(date, merchant, series.getExpectedAmount()));
+                }
+            }
+            upcoming.sort(Comparator.comparing(Occurrence::date));
+
+            BigDecimal currentBalance = account.getCurrentBalance() != null ? account.getCurrentBalance() : BigDecimal.ZERO;
+            // Plaid amounts are positive for money out; that lowers cash but raises what is owed on credit
+            boolean liability = "credit".equalsIgnoreCase(account.getAccountType())
+                    || "loan".equalsIgnoreCase(account.getAccountType());
+
+            Map<Integer, BigDecimal> projections = new LinkedHashMap<>();
+            MoneyAccumulator net = new MoneyAccumulator();
+            int next = 0;
+            for (int horizon : horizons) {
+                LocalDate horizonDate = today.plusDays(horizon);
+                while (next < upcoming.size() && !upcoming.get(next).date().isAfter(horizonDate)) {
+                    net.add(upcoming.get(next++).amount());
+                }
+                BigDecimal change = net.toBigDecimal();
+                projections.put(horizon, liability ? currentBalance.add(change) : currentBalance.subtract(change));
+            }
+
+            List<Map<String, Object>> upcomingItems = upcoming.stream()
+                    .map(occurrence -> {
+                        Map<String, Object> item = new HashMap<>();
+                        item.put("date", occurrence.date().toString());
+                        item.put("merchant", occurrence.merchant());
+                        item.put("amount", occurrence.amount());
+                        return item;
+                    })
+                    .toList();
+
+            Map<String, Object> forecast = new HashMap<>();
+            forecast.put("accountId", account.getId());
+            forecast.put("accountName", account.getAccountName());
+            forecast.put("accountType", account.getAccountType());
+            forecast.put("currentBalance", currentBalance);
+            forecast.put("projectedBalances", projections);
+            forecast.put("upcoming", upcomingItems);
+            accounts.add(forecast);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("asOf", today.toString());
+        result.put("accounts", accounts);
+        return result;
+    }
+
+    private record Occurrence(LocalDate date, String merchant, BigDecimal amount) {
+    }
+}
@@ -9,6 +9,7 @@ import com.financecoach.backend.model.PortfolioSnapshot;
 import com.financecoach.backend.repository.BankAccountRepository;
 import com.financecoach.backend.repository.HoldingRepository;
 import com.financecoach.backend.repository.PortfolioSnapshotRepository;
+import com.financecoach.backend.util.MoneyAccumulator;
 import com.plaid.client.model.InvestmentsHoldingsGetResponse;
 import com.plaid.client.model.Security;
 import org.slf4j.Logger;
@@ -20,10 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class InvestmentService {
@@ -42,6 +43,9 @@ public class InvestmentService {
     @Autowired
     private PlaidService plaidService;
 
+    @Autowired
+    private SyncLeaseService syncLeaseService;
+
     /**
      * Sync holdings from Plaid for a specific account
      */
@@ -130,6 +134,24 @@ public class InvestmentService {
                 userId, successCount, failureCount);
     }
 
+    /**
+     * Sync holdings for the investment accounts of one Plaid item (HOLDINGS webhook)
+     */
+    public void syncHoldingsForItem(String plaidItemId) {
+        List<BankAccount> investmentAccounts = bankAccountRepository
+                .findByPlaidItemIdAndIsActive(plaidItemId, true).stream()
+                .filter(account -> "investment".equalsIgnoreCase(account.getAccountType()))
+                .toList();
+
+        logger.info("Syncing holdings for item: {}, Investment accounts: {}",
+                plaidItemId, investmentAccounts.size());
+
+        // Let failures propagate so the queued work is retried
+        for (BankAccount account : investmentAccounts) {
+            syncHoldingsForAccount(account.getId(), account.getUserId());
+        }
+    }
+
     /**
      * Save or update a holding from Plaid data (UPDATED for 38.x)
      */
@@ -215,15 +237,20 @@ public class InvestmentService {
                     .build();
         }
 
-        // Calculate totals
-        BigDecimal totalValue = holdings.stream()
-                .map(Holding::getCurrentValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Calculate totals and allocation in one pass, in cents
+        MoneyAccumulator valueTotal = new MoneyAccumulator();
+        MoneyAccumulator costBasisTotal = new MoneyAccumulator();
+        Map<String, MoneyAccumulator> allocationTotals = new HashMap<>();
 
-        BigDecimal totalCostBasis = holdings.stream()
-                .map(h -> h.getCostBasis() != null ? h.getCostBasis() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (Holding holding : holdings) {
+            valueTotal.add(holding.getCurrentValue());
+            costBasisTotal.add(holding.getCostBasis());
+            allocationTotals.computeIfAbsent(holding.getType(), k -> new MoneyAccumulator())
+                    .add(holding.getCurrentValue());
+        }
 
+        BigDecimal totalValue = valueTotal.toBigDecimal();
+        BigDecimal totalCostBasis = costBasisTotal.toBigDecimal();
         BigDecimal totalGainLoss = totalValue.subtract(totalCostBasis);
 
         BigDecimal gainLossPercentage = totalCostBasis.compareTo(BigDecimal.ZERO) > 0
@@ -231,16 +258,8 @@ public class InvestmentService {
                 .multiply(BigDecimal.valueOf(100))
                 : BigDecimal.ZERO;
 
-        // Calculate allocation breakdown
-        Map<String, BigDecimal> allocationBreakdown = holdings.stream()
-                .collect(Collectors.groupingBy(
-                        Holding::getType,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                Holding::getCurrentValue,
-                                BigDecimal::add
-                        )
-                ));
+        Map<String, BigDecimal> allocationBreakdown = new HashMap<>();
+        allocationTotals.forEach((type, total) -> allocationBreakdown.put(type, total.toBigDecimal()));
 
         logger.info("Portfolio summary - User: {}, Total Value: {}, Gain/Loss: {}",
                 userId, totalValue, totalGainLoss);
@@ -296,6 +315,11 @@ public class InvestmentService {
     @Scheduled(cron = "0 0 2 * * *")  // 2 AM daily
     @Transactional
     public void takePortfolioSnapshots() {
+        // Run on one instance only
+        if (!syncLeaseService.tryAcquireJob("portfolio-snapshots", Duration.ofMinutes(50))) {
+            return;
+        }
+
         logger.info("Taking daily portfolio snapshots");
 
         // Get all users with investment accounts
@@ -353,6 +377,11 @@ public class InvestmentService {
     @Scheduled(cron = "0 */30 9-16 ? * MON-FRI", zone = "America/New_York")
     @Transactional
     public void autoSyncHoldings() {
+        // Run on one instance only; released before the next 30-minute slot
+        if (!syncLeaseService.tryAcquireJob("holdings-auto-sync", Duration.ofMinutes(25))) {
+            return;
+        }
+
         logger.info("Starting automatic holdings sync");
 
         List<UUID> userIds = bankAccountRepository.findDistinctUserIdsWithInvestmentAccounts();
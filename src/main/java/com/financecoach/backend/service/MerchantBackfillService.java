@@ -0,0 +1,122 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.Transaction;
+import com.financecoach.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns merchant ids to transactions written before the merchant dictionary existed,
+ * then rebuilds the affected users' rollups and merchant sketches so they group by id.
+ * One user per database transaction, in the background; runs once per deploy on one instance, which then
+ * builds any missing recurring series now that every transaction has a merchant id.
+ */
+@Service
+public class MerchantBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerchantBackfillService.class);
+
+    private static final int USER_BATCH_SIZE = 50;
+
+    private final TransactionRepository transactionRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final MerchantDictionaryService merchantDictionaryService;
+    private final MerchantSketchService merchantSketchService;
+    private final RecurringTransactionService recurringTransactionService;
+    private final SyncLeaseService syncLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    @Autowired
+    public MerchantBackfillService(TransactionRepository transactionRepository,
+                                   SpendingRollupService spendingRollupService,
+                                   MerchantDictionaryService merchantDictionaryService,
+                                   MerchantSketchService merchantSketchService,
+                                   RecurringTransactionService recurringTransactionService,
+                                   SyncLeaseService syncLeaseService,
+                                   PlatformTransactionManager transactionManager,
+                                   ThreadPoolTaskExecutor backfillExecutor) {
+        this.transactionRepository = transactionRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.merchantDictionaryService = merchantDictionaryService;
+        this.merchantSketchService = merchantSketchService;
+        this.recurringTransactionService = recurringTransactionService;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        backfillExecutor.execute(this::backfillMerchantIds);
+    }
+
+    public void backfillMerchantIds() {
+        if (!syncLeaseService.tryAcquireJob("merchant-id-backfill", Duration.ofHours(2))) {
+            return;
+        }
+
+        int users = 0;
+        // Users that failed stay unassigned; widen each batch past them so the loop still advances
+        Set<UUID> failed = new HashSet<>();
+        List<UUID> batch;
+        while (!(batch = pendingUsers(failed)).isEmpty()) {
+            for (UUID userId : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> backfillUser(userId));
+                    users++;
+                } catch (RuntimeException e) {
+                    logger.error("Failed to backfill merchant ids for user: {}", userId, e);
+                    failed.add(userId);
+                }
+            }
+        }
+
+        if (users > 0) {
+            logger.info("Assigned merchant ids and rebuilt rollups for {} users", users);
+        }
+
+        recurringTransactionService.backfillMissingAccounts();
+    }
+
+    private List<UUID> pendingUsers(Set<UUID> failed) {
+        return transactionRepository.findUserIdsWithoutMerchantId(Limit.of(USER_BATCH_SIZE + failed.size()))
+                .stream()
+                .filter(userId -> !failed.contains(userId))
+                .toList();
+    }
+
+    private void backfillUser(UUID userId) {
+        List<Transaction> transactions = transactionRepository.findByUserIdAndMerchantIdIsNull(userId);
+        Map<String, Integer> merchantIds = merchantDictionaryService.resolveAll(transactions.stream()
+                .map(transaction -> MerchantDictionaryService.rawName(transaction.getMerchantName(), transaction.getName()))
+                .collect(Collectors.toSet()));
+        for (Transaction transaction : transactions) {
+            transaction.setMerchantId(merchantIds.get(
+                    MerchantDictionaryService.rawName(transaction.getMerchantName(), transaction.getName())));
+        }
+        transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+
+        spendingRollupService.rebuildUser(userId);
+        merchantSketchService.rebuildUser(userId);
+
+        logger.debug("Backfilled merchant ids for user: {}, Transactions: {}", userId, transactions.size());
+    }
+}
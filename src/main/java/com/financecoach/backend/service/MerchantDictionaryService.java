@@ -0,0 +1,207 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.Merchant;
+import com.financecoach.backend.model.MerchantRule;
+import com.financecoach.backend.repository.MerchantRepository;
+import com.financecoach.backend.repository.MerchantRuleRepository;
+import com.financecoach.backend.util.MerchantNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Resolves raw merchant strings to ids in the merchants dictionary.
+ * Normalization rules come from built-in defaults overlaid with the merchant_rules table,
+ * reloaded periodically; raw-string, name and id lookups are cached in memory.
+ *
+ * New names are registered in the caller's transaction (or a short one of their own when
+ * there is none), never on a second connection, and ids are only cached once that
+ * transaction has committed. Ingest resolves each page with {@link #resolveAll} before
+ * opening its own transaction, so registration costs one batch per page.
+ */
+@Service
+public class MerchantDictionaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerchantDictionaryService.class);
+
+    // Common card-statement spellings; merchant_rules entries override these
+    private static final Map<String, String> DEFAULT_RULES = Map.ofEntries(
+            Map.entry("AMAZON", "Amazon"),
+            Map.entry("AMZN", "Amazon"),
+            Map.entry("UBER", "Uber"),
+            Map.entry("UBER EATS", "Uber Eats"),
+            Map.entry("LYFT", "Lyft"),
+            Map.entry("NETFLIX", "Netflix"),
+            Map.entry("SPOTIFY", "Spotify"),
+            Map.entry("STARBUCKS", "Starbucks"),
+            Map.entry("WAL MART", "Walmart"),
+            Map.entry("WALMART", "Walmart"),
+            Map.entry("WM SUPERCENTER", "Walmart"),
+            Map.entry("TARGET", "Target"),
+            Map.entry("COSTCO", "Costco"),
+            Map.entry("MCDONALD'S", "McDonald's"),
+            Map.entry("MCDONALDS", "McDonald's")
+    );
+
+    private final MerchantRepository merchantRepository;
+    private final MerchantRuleRepository merchantRuleRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile MerchantNormalizer normalizer = new MerchantNormalizer(DEFAULT_RULES);
+
+    private final Cache<String, Integer> idsByRawName = Caffeine.newBuilder().maximumSize(100_000).build();
+    private final Cache<String, Integer> idsByName = Caffeine.newBuilder().maximumSize(100_000).build();
+    private final Cache<Integer, String> namesById = Caffeine.newBuilder().maximumSize(100_000).build();
+
+    @Autowired
+    public MerchantDictionaryService(MerchantRepository merchantRepository,
+                                     MerchantRuleRepository merchantRuleRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.merchantRepository = merchantRepository;
+        this.merchantRuleRepository = merchantRuleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Dictionary id for a transaction's merchant, registering the canonical name on first sight
+     *
+     * @param merchantName Plaid merchant_name, may be null
+     * @param name         Plaid transaction name, used when there is no merchant name
+     */
+    public Integer resolve(String merchantName, String name) {
+        String raw = rawName(merchantName, name);
+        Integer cached = idsByRawName.getIfPresent(raw);
+        return cached != null ? cached : resolveAll(List.of(raw)).get(raw);
+    }
+
+    /**
+     * Dictionary ids for a batch of raw names (see {@link #rawName}), registering new
+     * canonical names with one lookup and one insert batch
+     */
+    public Map<String, Integer> resolveAll(Collection<String> rawNames) {
+        Map<String, Integer> ids = new HashMap<>();
+        Map<String, List<String>> pending = new TreeMap<>();  // Sorted: inserts always lock names in one order
+
+        MerchantNormalizer current = normalizer;
+        for (String raw : rawNames) {
+            if (ids.containsKey(raw)) {
+                continue;
+            }
+            Integer id = idsByRawName.getIfPresent(raw);
+            if (id == null) {
+                String canonical = current.normalize(raw);
+                id = idsByName.getIfPresent(canonical);
+                if (id == null) {
+                    pending.computeIfAbsent(canonical, k -> new ArrayList<>()).add(raw);
+                    continue;
+                }
+                idsByRawName.put(raw, id);
+            }
+            ids.put(raw, id);
+        }
+
+        if (pending.isEmpty()) {
+            return ids;
+        }
+
+        List<Merchant> merchants = transactionTemplate.execute(status -> findOrRegister(pending.keySet()));
+        Map<String, Integer> registered = new HashMap<>();
+        for (Merchant merchant : merchants) {
+            registered.put(merchant.getName(), merchant.getId());
+            for (String raw : pending.get(merchant.getName())) {
+                ids.put(raw, merchant.getId());
+            }
+        }
+
+        Runnable cacheIds = () -> registered.forEach((canonical, id) -> {
+            idsByName.put(canonical, id);
+            namesById.put(id, canonical);
+            pending.get(canonical).forEach(raw -> idsByRawName.put(raw, id));
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Joined the caller's transaction: a rollback must not leave uncommitted ids cached
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheIds.run();
+                }
+            });
+        } else {
+            cacheIds.run();
+        }
+        return ids;
+    }
+
+    /**
+     * The string a transaction's merchant is resolved from: Plaid merchant_name, else the
+     * transaction name, else "" (resolves to the unknown merchant)
+     */
+    public static String rawName(String merchantName, String name) {
+        String raw = merchantName != null ? merchantName : name;
+        return raw != null ? raw : "";
+    }
+
+    /**
+     * Canonical name for an id
+     */
+    public String nameOf(Integer merchantId) {
+        if (merchantId == null) {
+            return MerchantNormalizer.UNKNOWN;
+        }
+        return namesById.get(merchantId, id -> merchantRepository.findById(id)
+                .map(Merchant::getName)
+                .orElse(MerchantNormalizer.UNKNOWN));
+    }
+
+    /**
+     * Rebuild the matcher from the rules table; later ingests use the new rules
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${merchants.rules.reload-interval-ms:600000}")
+    public void reloadRules() {
+        Map<String, String> rules = new HashMap<>(DEFAULT_RULES);
+        for (MerchantRule rule : merchantRuleRepository.findAll()) {
+            rules.put(rule.getPattern(), rule.getMerchantName());
+        }
+
+        normalizer = new MerchantNormalizer(rules);
+        idsByRawName.invalidateAll();
+
+        logger.debug("Loaded {} merchant normalization rules", rules.size());
+    }
+
+    private List<Merchant> findOrRegister(Set<String> names) {
+        List<Merchant> merchants = new ArrayList<>(merchantRepository.findByNameIn(names));
+        Set<String> missing = new TreeSet<>(names);
+        merchants.forEach(merchant -> missing.remove(merchant.getName()));
+
+        if (!missing.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            for (String name : missing) {
+                merchantRepository.insertIfAbsent(name, now);
+            }
+            merchants.addAll(merchantRepository.findByNameIn(missing));
+        }
+        return merchants;
+    }
+}
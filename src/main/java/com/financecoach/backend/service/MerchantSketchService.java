@@ -0,0 +1,229 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.TransactionsIngestedEvent;
+import com.financecoach.backend.model.MerchantSketch;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import com.financecoach.backend.repository.MerchantSketchRepository;
+import com.financecoach.backend.util.SpaceSavingSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains per-user, per-month Space-Saving sketches of merchant spend and answers
+ * approximate top-merchant queries over long ranges by merging them.
+ * Sketch items are merchant ids; updates run inside the ingestion transaction,
+ * alongside the daily rollup.
+ */
+@Service
+public class MerchantSketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerchantSketchService.class);
+
+    private final MerchantSketchRepository sketchRepository;
+    private final DailySpendingRollupRepository rollupRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final MerchantDictionaryService merchantDictionaryService;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    // Counters kept per month; merchants above 1/capacity of a month's spend are always tracked
+    @Value("${analytics.merchant-sketch.capacity:64}")
+    private int capacity;
+
+    @Autowired
+    public MerchantSketchService(MerchantSketchRepository sketchRepository,
+                                 DailySpendingRollupRepository rollupRepository,
+                                 SyncLeaseService syncLeaseService,
+                                 MerchantDictionaryService merchantDictionaryService,
+                                 AnalyticsCache analyticsCache,
+                                 PlatformTransactionManager transactionManager,
+                                 ThreadPoolTaskExecutor backfillExecutor) {
+        this.sketchRepository = sketchRepository;
+        this.rollupRepository = rollupRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.merchantDictionaryService = merchantDictionaryService;
+        this.analyticsCache = analyticsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    /**
+     * Apply each changed row's spend delta to its month's sketch.
+     * Deltas are summed per (user, month, merchant) first, so a page locks each sketch once.
+     */
+    @EventListener
+    public void onTransactionsIngested(TransactionsIngestedEvent event) {
+        Map<SketchKey, Map<String, Long>> deltas = new HashMap<>();
+
+        for (TransactionsIngestedEvent.Change change : event.changes()) {
+            if (change.before() != null) {
+                accumulate(deltas, change.before(), -1);
+            }
+            if (change.after() != null) {
+                accumulate(deltas, change.after(), 1);
+            }
+        }
+
+        deltas.forEach((key, merchantDeltas) -> {
+            if (merchantDeltas.values().stream().allMatch(delta -> delta == 0)) {
+                return;
+            }
+            sketchRepository.insertIfAbsent(key.userId(), key.month());
+            MerchantSketch row = sketchRepository.lockByUserIdAndMonth(key.userId(), key.month()).orElseThrow();
+
+            SpaceSavingSketch sketch = SpaceSavingSketch.decode(row.getCounters(), capacity);
+            merchantDeltas.forEach(sketch::add);
+
+            row.setCounters(sketch.encode());
+            row.setUpdatedAt(LocalDateTime.now());
+        });
+
+        logger.debug("Updated {} merchant sketches", deltas.size());
+    }
+
+    /**
+     * Approximate top merchants for a range: whole months come from merged sketches and
+     * the partial months at either end from exact rollup sums. Amounts are upper bounds.
+     */
+    public Map<String, BigDecimal> estimateTopMerchants(UUID userId, LocalDate startDate, LocalDate endDate, int limit) {
+        LocalDate firstFullMonth = startDate.getDayOfMonth() == 1 ? startDate : startDate.plusMonths(1).withDayOfMonth(1);
+        LocalDate afterLastFullMonth = endDate.plusDays(1).withDayOfMonth(1);
+
+        SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+        if (firstFullMonth.isBefore(afterLastFullMonth)) {
+            for (MerchantSketch row : sketchRepository.findByUserIdAndMonthBetween(
+                    userId, firstFullMonth, afterLastFullMonth.minusMonths(1))) {
+                merged = merged.merge(SpaceSavingSketch.decode(row.getCounters(), capacity));
+            }
+        } else {
+            // No whole month inside the range
+            afterLastFullMonth = firstFullMonth;
+        }
+
+        addExact(merged, userId, startDate, min(endDate, firstFullMonth.minusDays(1)));
+        addExact(merged, userId, max(startDate, afterLastFullMonth), endDate);
+
+        Map<String, BigDecimal> merchants = new LinkedHashMap<>();
+        for (SpaceSavingSketch.Entry entry : merged.top(limit)) {
+            merchants.merge(merchantDictionaryService.nameOf(Integer.valueOf(entry.item())),
+                    BigDecimal.valueOf(entry.count(), 2), BigDecimal::add);
+        }
+        return merchants;
+    }
+
+    /**
+     * Build sketches for months that have rollup data but none yet (first deploy).
+     * Runs once per deploy on one instance; later changes arrive through ingestion events.
+     * One user per database transaction, under the rollup's per-user lock so ingest can't
+     * change the cells mid-build; a user that fails is logged and left for the next deploy.
+     */
+    public void backfillMissingSketches() {
+        if (!syncLeaseService.tryAcquireJob("merchant-sketch-backfill", Duration.ofMinutes(30))) {
+            return;
+        }
+
+        Map<UUID, List<LocalDate>> missingByUser = new LinkedHashMap<>();
+        for (Object[] row : sketchRepository.findMonthsWithoutSketch()) {
+            LocalDate month = row[1] instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) row[1];
+            missingByUser.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add(month);
+        }
+
+        int sketches = 0;
+        for (Map.Entry<UUID, List<LocalDate>> user : missingByUser.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    rollupRepository.lockUser(user.getKey());
+                    user.getValue().forEach(month -> buildFromRollup(user.getKey(), month));
+                    // Estimated top merchants were computed without these months
+                    analyticsCache.bumpVersions(List.of(user.getKey()));
+                });
+                sketches += user.getValue().size();
+            } catch (RuntimeException e) {
+                logger.error("Failed to backfill merchant sketches for user: {}", user.getKey(), e);
+            }
+        }
+
+        if (sketches > 0) {
+            logger.info("Backfilled {} merchant sketches", sketches);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        backfillExecutor.execute(this::backfillMissingSketches);
+    }
+
+    /**
+     * Replace a user's sketches with ones built from their (just rebuilt) rollup
+     */
+    @Transactional
+    public void rebuildUser(UUID userId) {
+        sketchRepository.deleteByUserId(userId);
+        for (Object month : rollupRepository.findMonthsWithData(userId)) {
+            buildFromRollup(userId, month instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) month);
+        }
+    }
+
+    private void buildFromRollup(UUID userId, LocalDate month) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        addExact(sketch, userId, month, month.plusMonths(1).minusDays(1));
+
+        MerchantSketch sketchRow = new MerchantSketch();
+        sketchRow.setUserId(userId);
+        sketchRow.setMonth(month);
+        sketchRow.setCounters(sketch.encode());
+        sketchRow.setUpdatedAt(LocalDateTime.now());
+        sketchRepository.save(sketchRow);
+    }
+
+    private void addExact(SpaceSavingSketch sketch, UUID userId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            return;
+        }
+        for (Object[] row : rollupRepository.sumSpendingByMerchant(userId, startDate, endDate, Limit.unlimited())) {
+            sketch.add(String.valueOf(row[0]), toCents((BigDecimal) row[1]));
+        }
+    }
+
+    private void accumulate(Map<SketchKey, Map<String, Long>> deltas, TransactionsIngestedEvent.Snapshot row, int sign) {
+        if (row.amount().signum() <= 0) {
+            return;  // Only spending is ranked
+        }
+        SketchKey key = new SketchKey(row.userId(), row.date().withDayOfMonth(1));
+        deltas.computeIfAbsent(key, k -> new HashMap<>())
+                .merge(String.valueOf(row.merchantId()), sign * toCents(row.amount()), Long::sum);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record SketchKey(UUID userId, LocalDate month) {
+    }
+}
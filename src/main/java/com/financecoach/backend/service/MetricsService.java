@@ -21,16 +21,20 @@ public class MetricsService {
     private final Counter transactionsSynced;
     private final Counter budgetsCreated;
     private final Counter budgetsExceeded;
+    private final Counter budgetAlerts;
     private final Counter aiCoachRequests;
     private final Counter userRegistrations;
     private final Counter userLogins;
     private final Counter bankAccountsConnected;
     private final Counter passwordResets;
+    private final Counter analyticsCacheHits;
+    private final Counter analyticsCacheMisses;
 
     // Timers
     private final Timer transactionSyncTimer;
     private final Timer aiCoachResponseTimer;
     private final Timer plaidApiTimer;
+    private final Timer budgetRefreshTimer;
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -51,6 +55,11 @@ public class MetricsService {
                 .tag("type", "alert")
                 .register(meterRegistry);
 
+        this.budgetAlerts = Counter.builder("finance_coach.budgets.alerts")
+                .description("Total number of budgets that crossed their alert threshold")
+                .tag("type", "alert")
+                .register(meterRegistry);
+
         this.aiCoachRequests = Counter.builder("finance_coach.ai_coach.requests")
                 .description("Total number of AI coach requests")
                 .tag("type", "ai")
@@ -76,6 +85,16 @@ public class MetricsService {
                 .tag("type", "auth")
                 .register(meterRegistry);
 
+        this.analyticsCacheHits = Counter.builder("finance_coach.analytics.cache")
+                .description("Analytics results served from the per-user cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+
+        this.analyticsCacheMisses = Counter.builder("finance_coach.analytics.cache")
+                .description("Analytics results computed because they were not cached")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
         // Initialize timers
         this.transactionSyncTimer = Timer.builder("finance_coach.transactions.sync.duration")
                 .description("Time taken to sync transactions")
@@ -91,6 +110,11 @@ public class MetricsService {
                 .description("Time taken for Plaid API calls")
                 .tag("operation", "plaid_api")
                 .register(meterRegistry);
+
+        this.budgetRefreshTimer = Timer.builder("finance_coach.budgets.refresh.duration")
+                .description("Time taken to refresh and evaluate all active budgets")
+                .tag("operation", "budget_refresh")
+                .register(meterRegistry);
     }
 
     // ===== COUNTER METHODS =====
@@ -107,6 +131,10 @@ public class MetricsService {
         budgetsExceeded.increment();
     }
 
+    public void recordBudgetAlert() {
+        budgetAlerts.increment();
+    }
+
     public void recordAiCoachRequest() {
         aiCoachRequests.increment();
     }
@@ -127,6 +155,14 @@ public class MetricsService {
         passwordResets.increment();
     }
 
+    public void recordAnalyticsCacheHit() {
+        analyticsCacheHits.increment();
+    }
+
+    public void recordAnalyticsCacheMiss() {
+        analyticsCacheMisses.increment();
+    }
+
     // ===== TIMER METHODS =====
 
     public void recordTransactionSyncDuration(long durationMs) {
@@ -141,6 +177,10 @@ public class MetricsService {
         plaidApiTimer.record(durationMs, TimeUnit.MILLISECONDS);
     }
 
+    public void recordBudgetRefreshDuration(long durationMs) {
+        budgetRefreshTimer.record(durationMs, TimeUnit.MILLISECONDS);
+    }
+
     // ===== GAUGE METHODS (for current values) =====
 
     public void recordActiveBudgets(int count) {
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
@@ -40,6 +41,9 @@ public class NetWorthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SyncLeaseService syncLeaseService;
+
     /**
      * Calculate current net worth for a user
      * ✅ UPDATED: Returns DTO instead of inner class
@@ -257,6 +261,11 @@ public class NetWorthService {
     @Scheduled(cron = "0 0 1 * * *")  // 1 AM daily
     @Transactional
     public void takeNetWorthSnapshots() {
+        // Run on one instance only
+        if (!syncLeaseService.tryAcquireJob("net-worth-snapshots", Duration.ofMinutes(50))) {
+            return;
+        }
+
         logger.info("Taking daily net worth snapshots for all users");
 
         List<User> users = userRepository.findAll();
@@ -0,0 +1,55 @@
+package com.financecoach.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global token-bucket limiter for outbound Plaid API calls.
+ * Shared by every sync thread so a fleet sweep never exceeds the configured request rate.
+ */
+@Component
+public class PlaidRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double maxPermits;
+
+    private double storedPermits;
+    private long lastRefillNanos;
+
+    public PlaidRateLimiter(@Value("${plaid.sync.requests-per-second:20}") double permitsPerSecond,
+                            @Value("${plaid.sync.burst:20}") double maxPermits) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxPermits = maxPermits;
+        this.storedPermits = maxPermits;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Block until a permit is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one permit and return how long the caller must wait before using it
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        storedPermits = Math.min(maxPermits,
+                storedPermits + (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+
+        // Going negative queues the caller behind earlier reservations
+        storedPermits -= 1;
+        if (storedPermits >= 0) {
+            return 0;
+        }
+        return (long) (-storedPermits * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+}
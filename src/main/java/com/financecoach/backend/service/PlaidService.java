@@ -7,10 +7,13 @@ import com.financecoach.backend.exception.UnauthorizedAccessException;
 import com.plaid.client.model.*;
 import com.plaid.client.request.PlaidApi;
 import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.SyncLease;
 import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.util.PlaidErrors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import retrofit2.Response;
 
@@ -32,6 +35,17 @@ public class PlaidService {
     @Autowired
     private MetricsService metricsService;
 
+    @Autowired
+    private SyncLeaseService syncLeaseService;
+
+    // Public URL of /api/plaid/webhook; new Items are linked without webhooks when empty
+    @Value("${plaid.webhook-url:}")
+    private String webhookUrl;
+
+    // History requested when an Item is linked (Plaid max 730 days = 24 months)
+    @Value("${plaid.sync.backfill-days:730}")
+    private int backfillDays;
+
     @Autowired
     public PlaidService(PlaidApi plaidClient, BankAccountRepository bankAccountRepository) {
         this.plaidClient = plaidClient;
@@ -53,7 +67,12 @@ public class PlaidService {
                     .clientName("Finance Coach")
                     .products(List.of(Products.TRANSACTIONS, Products.INVESTMENTS))
                     .countryCodes(List.of(CountryCode.US))
-                    .language("en");
+                    .language("en")
+                    .transactions(new LinkTokenTransactions().daysRequested(backfillDays));
+
+            if (!webhookUrl.isBlank()) {
+                request.webhook(webhookUrl);
+            }
 
             Response<LinkTokenCreateResponse> response = plaidClient
                     .linkTokenCreate(request)
@@ -121,7 +140,8 @@ public class PlaidService {
                 throw new PlaidIntegrationException("Failed to get accounts: " + errorMsg);
             }
 
-            // Get institution info
+            // Get item and institution info
+            String itemId = accountsResponse.body().getItem().getItemId();
             String institutionId = accountsResponse.body().getItem().getInstitutionId();
             String institutionName = "Unknown";
 
@@ -158,6 +178,7 @@ public class PlaidService {
                 bankAccount.setUserId(userId);
                 bankAccount.setPlaidAccountId(account.getAccountId());
                 bankAccount.setPlaidAccessToken(accessToken);
+                bankAccount.setPlaidItemId(itemId);
                 bankAccount.setInstitutionName(institutionName);
                 bankAccount.setInstitutionId(institutionId);
                 bankAccount.setAccountName(account.getName());
@@ -189,6 +210,12 @@ public class PlaidService {
                 metricsService.recordBankAccountConnected();
             }
 
+            // Backfill history in the background; the first sync pages through it without
+            // holding it in memory
+            if (itemId != null && !savedAccounts.isEmpty()) {
+                syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_TRANSACTIONS, itemId);
+            }
+
             long duration = System.currentTimeMillis() - startTime;
             metricsService.recordPlaidApiDuration(duration);
 
@@ -273,6 +300,37 @@ public class PlaidService {
         }
     }
 
+    /**
+     * Fetch the public key Plaid signed a webhook with
+     */
+    public JWKPublicKey getWebhookVerificationKey(String keyId) {
+        logger.debug("Fetching Plaid webhook verification key: {}", keyId);
+
+        try {
+            WebhookVerificationKeyGetRequest request = new WebhookVerificationKeyGetRequest()
+                    .keyId(keyId);
+
+            Response<WebhookVerificationKeyGetResponse> response = plaidClient
+                    .webhookVerificationKeyGet(request)
+                    .execute();
+
+            if (response.isSuccessful() && response.body() != null) {
+                return response.body().getKey();
+            }
+
+            String errorMsg = response.errorBody() != null
+                    ? response.errorBody().string()
+                    : "Unknown error";
+
+            logger.error("Failed to fetch webhook verification key: {} - Error: {}", keyId, errorMsg);
+            throw PlaidErrors.fromResponse("Failed to fetch webhook verification key", response.code(), errorMsg);
+
+        } catch (IOException e) {
+            logger.error("Network error fetching webhook verification key: {}", keyId, e);
+            throw new PlaidIntegrationException("Network error fetching webhook verification key", e, true);
+        }
+    }
+
     /**
      * Get investment transactions (buys, sells, dividends, etc.)
      */
@@ -0,0 +1,238 @@
+package com.financecoach.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financecoach.backend.exception.PlaidIntegrationException;
+import com.financecoach.backend.exception.UnauthorizedAccessException;
+import com.financecoach.backend.model.SyncLease;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plaid.client.model.JWKPublicKey;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.spec.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Verifies Plaid webhooks and turns them into queued, item-level sync work.
+ * Handling only writes a sync_leases row, so Plaid gets its 200 within milliseconds
+ * and the actual sync runs on whichever instance claims the work.
+ */
+@Service
+public class PlaidWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaidWebhookService.class);
+
+    // Plaid recommends rejecting webhooks signed more than 5 minutes ago (replay protection)
+    private static final Duration MAX_WEBHOOK_AGE = Duration.ofMinutes(5);
+
+    // Plaid rotates verification keys rarely; refetch now and then so a revoked key stops working
+    private static final Duration KEY_TTL = Duration.ofHours(24);
+
+    // A key id Plaid didn't give us a usable key for is rejected without asking again for this long
+    private static final Duration REJECTED_KEY_TTL = Duration.ofMinutes(10);
+
+    // Key lookups are triggered by an unauthenticated request, so cap them per minute
+    private static final int MAX_KEY_FETCHES_PER_MINUTE = 10;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PlaidService plaidService;
+    private final SyncLeaseService syncLeaseService;
+
+    // Verification keys by key id
+    private final Cache<String, PublicKey> verificationKeys = Caffeine.newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(KEY_TTL)
+            .build();
+
+    // Key ids whose lookup failed - random kids in forged headers end up here
+    private final Cache<String, Boolean> rejectedKeyIds = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(REJECTED_KEY_TTL)
+            .build();
+
+    private long keyFetchWindowStart;
+    private int keyFetchesInWindow;
+
+    @Autowired
+    public PlaidWebhookService(PlaidService plaidService, SyncLeaseService syncLeaseService) {
+        this.plaidService = plaidService;
+        this.syncLeaseService = syncLeaseService;
+    }
+
+    /**
+     * Verify a webhook and queue the sync it announces
+     */
+    public void handleWebhook(String payload, String verificationHeader) {
+        verify(payload, verificationHeader);
+
+        JsonNode event = readJson(payload);
+        String webhookType = event.path("webhook_type").asText();
+        String webhookCode = event.path("webhook_code").asText();
+        String itemId = event.path("item_id").asText(null);
+
+        logger.info("Handling Plaid webhook - Type: {}, Code: {}, Item: {}", webhookType, webhookCode, itemId);
+
+        if (itemId == null) {
+            return;
+        }
+
+        switch (webhookType + ":" + webhookCode) {
+            case "TRANSACTIONS:SYNC_UPDATES_AVAILABLE", "TRANSACTIONS:DEFAULT_UPDATE" ->
+                    queue(SyncLease.TYPE_ITEM_TRANSACTIONS, itemId);
+
+            case "HOLDINGS:DEFAULT_UPDATE" ->
+                    queue(SyncLease.TYPE_ITEM_HOLDINGS, itemId);
+
+            default -> logger.debug("Unhandled Plaid webhook: {}:{}", webhookType, webhookCode);
+        }
+    }
+
+    private void queue(String leaseType, String itemId) {
+        if (!syncLeaseService.queueItemWork(leaseType, itemId)) {
+            logger.debug("{} sync already pending for item {}, webhook coalesced", leaseType, itemId);
+        }
+    }
+
+    /**
+     * Check the Plaid-Verification JWT: ES256 signature by a current Plaid key,
+     * a recent iat, and a SHA-256 of the body matching the request_body_sha256 claim
+     */
+    private void verify(String payload, String verificationHeader) {
+        if (verificationHeader == null || verificationHeader.isBlank()) {
+            throw new UnauthorizedAccessException("Plaid webhook", "missing Plaid-Verification header");
+        }
+
+        JsonNode header = readJson(decodeSegment(verificationHeader.split("\\.")[0]));
+        if (!"ES256".equals(header.path("alg").asText())) {
+            throw new UnauthorizedAccessException("Plaid webhook", "unexpected signing algorithm");
+        }
+        String keyId = header.path("kid").asText();
+
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .verifyWith(verificationKey(keyId))
+                    .build()
+                    .parseSignedClaims(verificationHeader)
+                    .getPayload();
+        } catch (JwtException e) {
+            throw new UnauthorizedAccessException("Plaid webhook", "invalid signature");
+        }
+
+        if (claims.getIssuedAt() == null
+                || claims.getIssuedAt().toInstant().isBefore(Instant.now().minus(MAX_WEBHOOK_AGE))) {
+            throw new UnauthorizedAccessException("Plaid webhook", "stale webhook");
+        }
+
+        String expectedHash = claims.get("request_body_sha256", String.class);
+        String actualHash = sha256Hex(payload);
+        if (expectedHash == null || !MessageDigest.isEqual(
+                expectedHash.getBytes(StandardCharsets.UTF_8), actualHash.getBytes(StandardCharsets.UTF_8))) {
+            throw new UnauthorizedAccessException("Plaid webhook", "body hash mismatch");
+        }
+    }
+
+    /**
+     * Cached key for a kid. Misses go to Plaid only for kids that haven't failed recently
+     * and within the per-minute fetch budget, so forged headers can't spend the Plaid rate limit.
+     */
+    private PublicKey verificationKey(String keyId) {
+        PublicKey key = verificationKeys.getIfPresent(keyId);
+        if (key != null) {
+            return key;
+        }
+        if (keyId.isBlank() || rejectedKeyIds.getIfPresent(keyId) != null) {
+            throw new UnauthorizedAccessException("Plaid webhook", "unknown verification key");
+        }
+        if (!tryStartKeyFetch()) {
+            logger.warn("Plaid verification key fetch budget exhausted, rejecting webhook signed with {}", keyId);
+            throw new UnauthorizedAccessException("Plaid webhook", "unknown verification key");
+        }
+
+        try {
+            return verificationKeys.get(keyId, this::fetchVerificationKey);
+        } catch (UnauthorizedAccessException e) {
+            // Plaid returned the key but it has expired
+            rejectedKeyIds.put(keyId, Boolean.TRUE);
+            throw e;
+        } catch (PlaidIntegrationException e) {
+            // Remember only Plaid's own verdict on the kid; outages and rate limits must not
+            // lock out genuine webhooks for the rejection TTL
+            if (e.getPlaidErrorCode() != null && !e.isRetryable()) {
+                rejectedKeyIds.put(keyId, Boolean.TRUE);
+                throw new UnauthorizedAccessException("Plaid webhook", "unknown verification key");
+            }
+            throw e;
+        }
+    }
+
+    private synchronized boolean tryStartKeyFetch() {
+        long now = System.currentTimeMillis();
+        if (now - keyFetchWindowStart >= 60_000) {
+            keyFetchWindowStart = now;
+            keyFetchesInWindow = 0;
+        }
+        return ++keyFetchesInWindow <= MAX_KEY_FETCHES_PER_MINUTE;
+    }
+
+    private PublicKey fetchVerificationKey(String keyId) {
+        JWKPublicKey jwk = plaidService.getWebhookVerificationKey(keyId);
+        if (jwk.getExpiredAt() != null) {
+            throw new UnauthorizedAccessException("Plaid webhook", "verification key expired");
+        }
+
+        try {
+            // Plaid keys are P-256 JWKs; rebuild the EC point from its x/y coordinates
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECPoint point = new ECPoint(
+                    new BigInteger(1, Base64.getUrlDecoder().decode(jwk.getX())),
+                    new BigInteger(1, Base64.getUrlDecoder().decode(jwk.getY())));
+
+            return KeyFactory.getInstance("EC").generatePublic(
+                    new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to build Plaid webhook verification key " + keyId, e);
+        }
+    }
+
+    private String decodeSegment(String segment) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(segment), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new UnauthorizedAccessException("Plaid webhook", "malformed Plaid-Verification header");
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UnauthorizedAccessException("Plaid webhook", "malformed JSON");
+        }
+    }
+
+    private String sha256Hex(String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.TransactionsIngestedEvent;
+import com.financecoach.backend.model.RecurringSeries;
+import com.financecoach.backend.model.Transaction;
+import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import com.financecoach.backend.repository.RecurringSeriesRepository;
+import com.financecoach.backend.repository.TransactionRepository;
+import com.financecoach.backend.util.RecurrenceDetector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Keeps recurring_series in step with ingested transactions. Each series holds the most
+ * recent occurrences of one merchant's inflows or outflows on one account; every change
+ * edits that window and re-runs cadence detection on it, so cost per transaction is
+ * constant and history is never rescanned. Runs inside the ingestion transaction.
+ */
+@Service
+public class RecurringTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurringTransactionService.class);
+
+    // Occurrences kept per series; a year of monthly charges
+    private static final int MAX_OCCURRENCES = 12;
+
+    // History read when building series for accounts that have none: long enough for the
+    // three occurrences of the longest (yearly) cadence, including its date tolerance
+    private static final int BACKFILL_DAYS = 2 * (365 + 10);
+
+    private final RecurringSeriesRepository seriesRepository;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final DailySpendingRollupRepository rollupRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public RecurringTransactionService(RecurringSeriesRepository seriesRepository,
+                                       TransactionRepository transactionRepository,
+                                       BankAccountRepository bankAccountRepository,
+                                       DailySpendingRollupRepository rollupRepository,
+                                       SyncLeaseService syncLeaseService,
+                                       PlatformTransactionManager transactionManager) {
+        this.seriesRepository = seriesRepository;
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.rollupRepository = rollupRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Move each changed row's occurrence out of its old series and into its new one
+     */
+    @EventListener
+    public void onTransactionsIngested(TransactionsIngestedEvent event) {
+        // The per-user lock the rollup takes too (it is re-entrant); it orders this page
+        // against a backfill of the same user's series
+        event.userIds().stream().sorted().forEach(rollupRepository::lockUser);
+
+        Map<SeriesKey, List<Edit>> edits = new HashMap<>();
+
+        for (TransactionsIngestedEvent.Change change : event.changes()) {
+            if (change.before() != null) {
+                addEdit(edits, change.before(), false);
+            }
+            if (change.after() != null) {
+                addEdit(edits, change.after(), true);
+            }
+        }
+
+        edits.forEach((key, seriesEdits) -> {
+            seriesRepository.insertIfAbsent(key.userId(), key.accountId(), key.merchantId(), key.direction());
+            RecurringSeries series = seriesRepository
+                    .lockSeries(key.accountId(), key.merchantId(), key.direction())
+                    .orElseThrow();
+
+            TreeMap<LocalDate, List<Long>> occurrences = decode(series.getOccurrences());
+            for (Edit edit : seriesEdits) {
+                if (edit.add()) {
+                    occurrences.computeIfAbsent(edit.date(), d -> new ArrayList<>()).add(edit.cents());
+                } else {
+                    List<Long> onDate = occurrences.get(edit.date());
+                    if (onDate != null && onDate.remove(Long.valueOf(edit.cents())) && onDate.isEmpty()) {
+                        occurrences.remove(edit.date());
+                    }
+                }
+            }
+            apply(series, occurrences);
+        });
+
+        logger.debug("Updated {} recurring series", edits.size());
+    }
+
+    /**
+     * Build series for accounts that have transactions but none yet (first deploy),
+     * from the last {@value #BACKFILL_DAYS} days only. One account per database transaction;
+     * an account that fails is logged and left for the next deploy.
+     * Series are keyed on merchant id, so this is run by {@link MerchantBackfillService}
+     * once every transaction has one rather than on its own at startup.
+     */
+    public void backfillMissingAccounts() {
+        if (!syncLeaseService.tryAcquireJob("recurring-series-backfill", Duration.ofHours(1))) {
+            return;
+        }
+
+        int built = 0;
+        for (UUID accountId : seriesRepository.findAccountsWithoutSeries()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> backfillAccount(accountId));
+                built++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to build recurring series for account: {}", accountId, e);
+            }
+        }
+
+        if (built > 0) {
+            logger.info("Built recurring series for {} accounts", built);
+        }
+    }
+
+    private void backfillAccount(UUID accountId) {
+        // Taken before reading, so every page ingested for the user has either committed and is
+        // read here, or waits and then edits the series written here
+        bankAccountRepository.findById(accountId)
+                .ifPresent(account -> rollupRepository.lockUser(account.getUserId()));
+
+        Map<SeriesKey, TreeMap<LocalDate, List<Long>>> byKey = new HashMap<>();
+        for (Transaction transaction : transactionRepository
+                .findByAccountIdAndDateGreaterThanEqual(accountId, LocalDate.now().minusDays(BACKFILL_DAYS))) {
+            if (transaction.getMerchantId() == null || transaction.getAmount().signum() == 0) {
+                continue;
+            }
+            SeriesKey key = new SeriesKey(transaction.getUserId(), accountId, transaction.getMerchantId(),
+                    direction(transaction.getAmount()));
+            byKey.computeIfAbsent(key, k -> new TreeMap<>())
+                    .computeIfAbsent(transaction.getDate(), d -> new ArrayList<>())
+                    .add(toCents(transaction.getAmount()));
+        }
+
+        // Same insert-then-lock as ingest; a series a page created meanwhile is rebuilt from history
+        byKey.forEach((key, occurrences) -> {
+            seriesRepository.insertIfAbsent(key.userId(), key.accountId(), key.merchantId(), key.direction());
+            RecurringSeries series = seriesRepository
+                    .lockSeries(key.accountId(), key.merchantId(), key.direction())
+                    .orElseThrow();
+            apply(series, occurrences);
+        });
+    }
+
+    /**
+     * Trim to the most recent occurrence days, re-detect the cadence and store the result
+     */
+    private void apply(RecurringSeries series, TreeMap<LocalDate, List<Long>> occurrences) {
+        while (occurrences.size() > MAX_OCCURRENCES) {
+            occurrences.pollFirstEntry();
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        List<Long> amounts = new ArrayList<>();
+        StringBuilder encoded = new StringBuilder();
+        occurrences.forEach((date, charges) -> {
+            // Several charges on one day count as one occurrence
+            dates.add(date);
+            amounts.add(charges.stream().mapToLong(Long::longValue).sum());
+            charges.forEach(cents -> encoded.append(date).append(':').append(cents).append(';'));
+        });
+
+        series.setOccurrences(encoded.toString());
+        series.setLastDate(occurrences.isEmpty() ? null : occurrences.lastKey());
+        series.setPreviousDate(occurrences.size() < 2 ? null : occurrences.lowerKey(occurrences.lastKey()));
+
+        Optional<RecurrenceDetector.Recurrence> recurrence = RecurrenceDetector.detect(dates, amounts);
+        series.setPeriodDays(recurrence.map(RecurrenceDetector.Recurrence::periodDays).orElse(null));
+        series.setExpectedAmount(recurrence.map(r -> BigDecimal.valueOf(r.amountCents(), 2)).orElse(null));
+        series.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void addEdit(Map<SeriesKey, List<Edit>> edits, TransactionsIngestedEvent.Snapshot row, boolean add) {
+        if (row.amount().signum() == 0 || row.merchantId() == null) {
+            return;
+        }
+        SeriesKey key = new SeriesKey(row.userId(), row.accountId(), row.merchantId(), direction(row.amount()));
+        edits.computeIfAbsent(key, k -> new ArrayList<>()).add(new Edit(row.date(), toCents(row.amount()), add));
+    }
+
+    private static TreeMap<LocalDate, List<Long>> decode(String encoded) {
+        TreeMap<LocalDate, List<Long>> occurrences = new TreeMap<>();
+        for (String entry : encoded.split(";")) {
+            int sep = entry.indexOf(':');
+            if (sep > 0) {
+                occurrences.computeIfAbsent(LocalDate.parse(entry.substring(0, sep)), d -> new ArrayList<>())
+                        .add(Long.parseLong(entry.substring(sep + 1)));
+            }
+        }
+        return occurrences;
+    }
+
+    private static String direction(BigDecimal amount) {
+        // Plaid sign: positive is money leaving the account
+        return amount.signum() > 0 ? RecurringSeries.OUTFLOW : RecurringSeries.INFLOW;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private record SeriesKey(UUID userId, UUID accountId, Integer merchantId, String direction) {
+    }
+
+    private record Edit(LocalDate date, long cents, boolean add) {
+    }
+}
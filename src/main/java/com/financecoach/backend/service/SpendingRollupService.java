@@ -0,0 +1,162 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.TransactionsIngestedEvent;
+import com.financecoach.backend.repository.DailySpendingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps daily_spending_rollup in step with the transactions table.
+ * Runs inside the ingestion transaction, so a page and its rollup deltas commit together.
+ */
+@Service
+public class SpendingRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpendingRollupService.class);
+
+    private final DailySpendingRollupRepository rollupRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor backfillExecutor;
+
+    @Autowired
+    public SpendingRollupService(DailySpendingRollupRepository rollupRepository,
+                                 SyncLeaseService syncLeaseService,
+                                 AnalyticsCache analyticsCache,
+                                 PlatformTransactionManager transactionManager,
+                                 ThreadPoolTaskExecutor backfillExecutor) {
+        this.rollupRepository = rollupRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.analyticsCache = analyticsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    /**
+     * Back out each changed row's old contribution and add its new one.
+     * Deltas are summed per cell first, so a page costs one upsert per touched cell.
+     */
+    @EventListener
+    public void onTransactionsIngested(TransactionsIngestedEvent event) {
+        // Sorted, so two pages touching the same users can't lock them in opposite orders
+        event.userIds().stream().sorted().forEach(rollupRepository::lockUser);
+        analyticsCache.bumpVersions(event.userIds());
+
+        Map<CellKey, CellDelta> deltas = new HashMap<>();
+
+        for (TransactionsIngestedEvent.Change change : event.changes()) {
+            if (change.before() != null) {
+                accumulate(deltas, change.before(), -1);
+            }
+            if (change.after() != null) {
+                accumulate(deltas, change.after(), 1);
+            }
+        }
+
+        deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                rollupRepository.applyDelta(key.userId(), key.date(), key.category(), key.budgetCategory(), key.merchantId(),
+                        delta.spend, delta.income, delta.count);
+            }
+        });
+        rollupRepository.deleteEmptyCells(event.userIds());
+
+        logger.debug("Applied {} rollup deltas for {} changed transactions", deltas.size(), event.changes().size());
+    }
+
+    /**
+     * Recompute one user's cells from their transactions, under the same per-user lock
+     * ingest takes, so deltas committed meanwhile are neither lost nor counted twice.
+     * Joins the caller's transaction; the lock is held until it commits.
+     *
+     * @return number of cells written
+     */
+    @Transactional
+    public int rebuildUser(UUID userId) {
+        rollupRepository.lockUser(userId);
+        rollupRepository.deleteByUserId(userId);
+        int cells = rollupRepository.rebuildUser(userId);
+
+        // Cached analytics were computed from the old cells
+        analyticsCache.bumpVersions(List.of(userId));
+        return cells;
+    }
+
+    /**
+     * Build the rollup for users who have transactions but no rollup rows yet.
+     * Runs once per deploy on one instance; later changes arrive through ingestion events.
+     * One user per database transaction, so ingest is only ever blocked by a single rebuild;
+     * a user that fails is logged and left for the next deploy.
+     */
+    public void backfillMissingUsers() {
+        if (!syncLeaseService.tryAcquireJob("spending-rollup-backfill", Duration.ofMinutes(30))) {
+            return;
+        }
+
+        int cells = 0;
+        for (UUID userId : rollupRepository.findUserIdsWithoutRollup()) {
+            try {
+                cells += transactionTemplate.execute(status -> rebuildUser(userId));
+            } catch (RuntimeException e) {
+                logger.error("Failed to backfill daily spending rollup for user: {}", userId, e);
+            }
+        }
+        if (cells > 0) {
+            logger.info("Backfilled {} daily spending rollup rows", cells);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleBackfill() {
+        backfillExecutor.execute(this::backfillMissingUsers);
+    }
+
+    private void accumulate(Map<CellKey, CellDelta> deltas, TransactionsIngestedEvent.Snapshot row, int sign) {
+        CellKey key = new CellKey(
+                row.userId(),
+                row.date(),
+                row.category() != null ? row.category() : "Uncategorized",
+                row.budgetCategory(),
+                row.merchantId());
+
+        CellDelta delta = deltas.computeIfAbsent(key, k -> new CellDelta());
+        BigDecimal amount = sign > 0 ? row.amount() : row.amount().negate();
+
+        if (row.amount().signum() > 0) {
+            delta.spend = delta.spend.add(amount);
+        } else if (row.amount().signum() < 0) {
+            delta.income = delta.income.subtract(amount);
+        }
+        delta.count += sign;
+    }
+
+    private record CellKey(UUID userId, LocalDate date, String category, String budgetCategory, Integer merchantId) {
+    }
+
+    private static class CellDelta {
+        private BigDecimal spend = BigDecimal.ZERO;
+        private BigDecimal income = BigDecimal.ZERO;
+        private int count;
+
+        private boolean isZero() {
+            return count == 0 && spend.signum() == 0 && income.signum() == 0;
+        }
+    }
+}
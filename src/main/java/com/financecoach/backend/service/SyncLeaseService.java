@@ -0,0 +1,242 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.SyncLease;
+import com.financecoach.backend.repository.SyncLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coordinates background work across app instances through the sync_leases table.
+ * Queued work is claimed with SELECT ... FOR UPDATE SKIP LOCKED so N instances split
+ * the fleet between them; leases expire so a crashed instance's work is picked up again.
+ */
+@Service
+public class SyncLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncLeaseService.class);
+
+    private final SyncLeaseRepository syncLeaseRepository;
+
+    private final String instanceId;
+
+    @Value("${sync.lease.duration-minutes:10}")
+    private long leaseDurationMinutes;
+
+    @Autowired
+    public SyncLeaseService(SyncLeaseRepository syncLeaseRepository,
+                            @Value("${HOSTNAME:local}") String hostname) {
+        this.syncLeaseRepository = syncLeaseRepository;
+        this.instanceId = hostname + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Make sure every user with an active bank account has a transaction-sync lease.
+     * New and idle users become due immediately; everyone else keeps their adaptive schedule.
+     */
+    @Transactional
+    public int enqueueTransactionSyncForActiveUsers() {
+        LocalDateTime now = LocalDateTime.now();
+        int created = syncLeaseRepository.insertMissingTransactionLeases(now);
+        int rearmed = syncLeaseRepository.markIdleTransactionLeasesDue(now);
+        logger.debug("Queued transaction sync - New leases: {}, Re-armed: {}", created, rearmed);
+        return created + rearmed;
+    }
+
+    /**
+     * Queue work for a single Plaid item, e.g. from a webhook.
+     * Repeated requests before the work runs collapse into one row, so a burst of
+     * webhooks for the same item costs a single sync.
+     *
+     * @return false if the item already had work pending
+     */
+    @Transactional
+    public boolean queueItemWork(String leaseType, String plaidItemId) {
+        LocalDateTime now = LocalDateTime.now();
+        String leaseKey = leaseType.toLowerCase().replace('_', '-') + ":" + plaidItemId;
+
+        syncLeaseRepository.insertItemLeaseIfAbsent(leaseKey, leaseType, plaidItemId, now);
+        return syncLeaseRepository.markDue(leaseKey, now) == 1;
+    }
+
+    /**
+     * Claim up to {@code limit} due work rows of one type for this instance
+     */
+    @Transactional
+    public List<SyncLease> claimDue(String leaseType, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncLease> leases = syncLeaseRepository.lockDueLeases(leaseType, now, limit);
+
+        LocalDateTime expiresAt = now.plusMinutes(leaseDurationMinutes);
+        for (SyncLease lease : leases) {
+            lease.setOwner(instanceId);
+            lease.setLeaseExpiresAt(expiresAt);
+        }
+
+        // Flushed on commit, which also releases the row locks
+        return leases;
+    }
+
+    /**
+     * Extend claimed leases that are still being worked on, so a long sync isn't taken
+     * over by another instance when the claim-time expiry passes.
+     *
+     * @return number of leases still owned by this instance
+     */
+    @Transactional
+    public int renew(Collection<String> leaseKeys) {
+        if (leaseKeys.isEmpty()) {
+            return 0;
+        }
+        int renewed = syncLeaseRepository.renew(leaseKeys, instanceId,
+                LocalDateTime.now().plusMinutes(leaseDurationMinutes));
+        if (renewed < leaseKeys.size()) {
+            logger.warn("Renewed {} of {} leases - the rest expired and were taken over", renewed, leaseKeys.size());
+        }
+        return renewed;
+    }
+
+    public Duration getLeaseDuration() {
+        return Duration.ofMinutes(leaseDurationMinutes);
+    }
+
+    /**
+     * Mark claimed work as done and release the lease
+     *
+     * @param nextRunAt when the work is next due, or null to wait until it is queued again
+     */
+    @Transactional
+    public void complete(SyncLease claimed, LocalDateTime nextRunAt) {
+        syncLeaseRepository.findById(claimed.getLeaseKey())
+                .filter(this::ownedByThisInstance)
+                .ifPresent(lease -> {
+                    lease.setLastCompletedAt(LocalDateTime.now());
+                    lease.setNextRunAt(earliest(nextRunAt, requeuedAt(claimed, lease)));
+                    lease.setFailureCount(0);
+                    release(lease);
+                });
+    }
+
+    /**
+     * Record a failed attempt and release the lease so the work is retried at {@code retryAt}
+     */
+    @Transactional
+    public void fail(SyncLease claimed, LocalDateTime retryAt) {
+        syncLeaseRepository.findById(claimed.getLeaseKey())
+                .filter(this::ownedByThisInstance)
+                .ifPresent(lease -> {
+                    lease.setFailureCount(lease.getFailureCount() + 1);
+                    lease.setNextRunAt(retryAt);
+                    release(lease);
+                });
+    }
+
+    /**
+     * Cluster-wide guard for @Scheduled jobs that must run on one instance only.
+     * The lease is deliberately not released when the job finishes: holding it for
+     * {@code holdFor} stops another instance whose cron fires a little later from
+     * running the same job again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquireJob(String jobName, Duration holdFor) {
+        LocalDateTime now = LocalDateTime.now();
+        String leaseKey = "job:" + jobName;
+
+        syncLeaseRepository.insertJobIfAbsent(leaseKey, now);
+        boolean acquired = syncLeaseRepository.tryAcquire(leaseKey, instanceId, now, now.plus(holdFor)) == 1;
+
+        if (!acquired) {
+            logger.info("Skipping job {} - already running or recently run on another instance", jobName);
+        }
+        return acquired;
+    }
+
+    /**
+     * Take the sync lock of one Plaid item, so the scheduled, webhook and user-triggered
+     * paths never ingest the same item at the same time. The lock expires like any lease
+     * and must be kept alive with {@link #extendItemLock} while the sync runs.
+     *
+     * @return the holder token to extend/release the lock with, or null if the item is busy
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String tryLockItem(String itemKey) {
+        LocalDateTime now = LocalDateTime.now();
+        String leaseKey = "item-lock:" + itemKey;
+        // Unique per sync, not per instance: two threads here must not share the lock
+        String token = instanceId + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+        syncLeaseRepository.insertItemLockIfAbsent(leaseKey, now);
+        if (syncLeaseRepository.tryAcquire(leaseKey, token, now, now.plusMinutes(leaseDurationMinutes)) == 1) {
+            return token;
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the lock expired and someone else holds it now
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean extendItemLock(String itemKey, String token) {
+        return syncLeaseRepository.renew(List.of("item-lock:" + itemKey), token,
+                LocalDateTime.now().plusMinutes(leaseDurationMinutes)) == 1;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlockItem(String itemKey, String token) {
+        syncLeaseRepository.release("item-lock:" + itemKey, token);
+    }
+
+    /**
+     * Queue item work to run at {@code dueAt} rather than right away
+     */
+    @Transactional
+    public void queueItemWork(String leaseType, String plaidItemId, LocalDateTime dueAt) {
+        String leaseKey = leaseType.toLowerCase().replace('_', '-') + ":" + plaidItemId;
+
+        syncLeaseRepository.insertItemLeaseIfAbsent(leaseKey, leaseType, plaidItemId, LocalDateTime.now());
+        syncLeaseRepository.markDue(leaseKey, dueAt);
+    }
+
+    private boolean ownedByThisInstance(SyncLease lease) {
+        if (!instanceId.equals(lease.getOwner())) {
+            // Our lease expired and another instance took the work over
+            logger.warn("Lease {} is now owned by {}, not releasing", lease.getLeaseKey(), lease.getOwner());
+            return false;
+        }
+        return true;
+    }
+
+    // Due time set by someone else (e.g. a webhook) while we held the lease, so it isn't lost
+    private LocalDateTime requeuedAt(SyncLease claimed, SyncLease current) {
+        LocalDateTime due = current.getNextRunAt();
+        if (due == null || due.equals(claimed.getNextRunAt())) {
+            return null;
+        }
+        return due;
+    }
+
+    private LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isBefore(b) ? a : b;
+    }
+
+    private void release(SyncLease lease) {
+        lease.setOwner(null);
+        lease.setLeaseExpiresAt(null);
+    }
+}
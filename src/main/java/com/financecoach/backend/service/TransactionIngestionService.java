@@ -0,0 +1,191 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.event.TransactionsIngestedEvent;
+import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.Transaction;
+import com.financecoach.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion stage for Plaid transaction pages.
+ * A page is deduplicated with a single lookup on plaid_transaction_id and written
+ * with batched INSERT/UPDATE statements inside one database transaction.
+ * Every page publishes a {@link TransactionsIngestedEvent} with before/after snapshots
+ * so derived data is kept in step with the raw rows.
+ */
+@Service
+public class TransactionIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestionService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MerchantDictionaryService merchantDictionaryService;
+    private final BudgetCategoryService budgetCategoryService;
+
+    @Autowired
+    public TransactionIngestionService(TransactionRepository transactionRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       MerchantDictionaryService merchantDictionaryService,
+                                       BudgetCategoryService budgetCategoryService) {
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.merchantDictionaryService = merchantDictionaryService;
+        this.budgetCategoryService = budgetCategoryService;
+    }
+
+    /**
+     * Upsert added/modified transactions and delete removed ones for one page of a Plaid item.
+     * Rows are fanned out to the matching bank account by Plaid account_id; transactions for
+     * accounts we don't track (e.g. disconnected ones) are ignored.
+     */
+    @Transactional
+    public IngestResult ingestPage(Map<String, BankAccount> accountsByPlaidId,
+                                   List<com.plaid.client.model.Transaction> upserts,
+                                   List<String> removedPlaidTransactionIds) {
+
+        List<com.plaid.client.model.Transaction> trackedTransactions = upserts.stream()
+                .filter(plaidTx -> accountsByPlaidId.containsKey(plaidTx.getAccountId()))
+                .toList();
+
+        // One SELECT ... FOR UPDATE for the whole page instead of one exists-check per row
+        Map<String, Transaction> existing = trackedTransactions.isEmpty()
+                ? Map.of()
+                : transactionRepository.lockByPlaidTransactionIdIn(trackedTransactions.stream()
+                        .map(com.plaid.client.model.Transaction::getTransactionId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Transaction::getPlaidTransactionId, Function.identity()));
+
+        List<Transaction> inserts = new ArrayList<>();
+        List<TransactionsIngestedEvent.Change> changes = new ArrayList<>();
+        int updatedCount = 0;
+
+        for (com.plaid.client.model.Transaction plaidTx : trackedTransactions) {
+            BankAccount bankAccount = accountsByPlaidId.get(plaidTx.getAccountId());
+            Transaction transaction = existing.get(plaidTx.getTransactionId());
+            if (transaction != null) {
+                // Managed entity - flushed as a batched UPDATE on commit
+                TransactionsIngestedEvent.Snapshot before = snapshot(transaction);
+                applyPlaidTransaction(transaction, plaidTx, bankAccount);
+                changes.add(new TransactionsIngestedEvent.Change(before, snapshot(transaction)));
+                updatedCount++;
+            } else {
+                transaction = new Transaction();
+                applyPlaidTransaction(transaction, plaidTx, bankAccount);
+                inserts.add(transaction);
+                changes.add(new TransactionsIngestedEvent.Change(null, snapshot(transaction)));
+            }
+        }
+
+        // Batched INSERTs (hibernate.jdbc.batch_size)
+        List<Transaction> inserted = transactionRepository.saveAll(inserts);
+
+        int removedCount = 0;
+        if (!removedPlaidTransactionIds.isEmpty()) {
+            List<UUID> accountIds = accountsByPlaidId.values().stream()
+                    .map(BankAccount::getId)
+                    .toList();
+
+            // Read what is about to go so derived data can back it out
+            transactionRepository.lockByAccountIdInAndPlaidTransactionIdIn(accountIds, removedPlaidTransactionIds)
+                    .forEach(removed -> changes.add(new TransactionsIngestedEvent.Change(snapshot(removed), null)));
+
+            removedCount = transactionRepository
+                    .deleteByAccountIdInAndPlaidTransactionIdIn(accountIds, removedPlaidTransactionIds);
+        }
+
+        if (!changes.isEmpty()) {
+            Set<UUID> userIds = accountsByPlaidId.values().stream()
+                    .map(BankAccount::getUserId)
+                    .collect(Collectors.toSet());
+            eventPublisher.publishEvent(new TransactionsIngestedEvent(userIds, changes));
+        }
+
+        logger.debug("Ingested page - Accounts: {}, Inserted: {}, Updated: {}, Removed: {}",
+                accountsByPlaidId.size(), inserted.size(), updatedCount, removedCount);
+
+        return new IngestResult(inserted, updatedCount, removedCount);
+    }
+
+    private TransactionsIngestedEvent.Snapshot snapshot(Transaction transaction) {
+        return new TransactionsIngestedEvent.Snapshot(
+                transaction.getUserId(),
+                transaction.getAccountId(),
+                transaction.getDate(),
+                transaction.getCategory(),
+                // Rows written before these columns existed resolve the same way ingest would
+                transaction.getBudgetCategory() != null
+                        ? transaction.getBudgetCategory()
+                        : budgetCategoryService.resolve(transaction.getUserId(), transaction.getCategory()),
+                transaction.getMerchantId() != null
+                        ? transaction.getMerchantId()
+                        : merchantDictionaryService.resolve(transaction.getMerchantName(), transaction.getName()),
+                transaction.getAmount());
+    }
+
+    /**
+     * Copy Plaid transaction fields onto our Transaction entity
+     */
+    private void applyPlaidTransaction(Transaction transaction,
+                                       com.plaid.client.model.Transaction plaidTx,
+                                       BankAccount bankAccount) {
+        transaction.setUserId(bankAccount.getUserId());
+        transaction.setAccountId(bankAccount.getId());
+        transaction.setPlaidTransactionId(plaidTx.getTransactionId());
+
+        // Date
+        transaction.setDate(plaidTx.getDate());
+
+        // Amount (Plaid uses positive for expenses, negative for income)
+        transaction.setAmount(BigDecimal.valueOf(plaidTx.getAmount()));
+
+        // Merchant
+        transaction.setMerchantName(plaidTx.getMerchantName());
+        transaction.setName(plaidTx.getName());
+        transaction.setMerchantId(merchantDictionaryService.resolve(plaidTx.getMerchantName(), plaidTx.getName()));
+
+        // Category
+        if (plaidTx.getPersonalFinanceCategory() != null) {
+            transaction.setCategory(plaidTx.getPersonalFinanceCategory().getPrimary());
+            transaction.setSubcategory(plaidTx.getPersonalFinanceCategory().getDetailed());
+        } else if (plaidTx.getCategory() != null && !plaidTx.getCategory().isEmpty()) {
+            // Fallback to old category system
+            transaction.setCategory(plaidTx.getCategory().get(0));
+            if (plaidTx.getCategory().size() > 1) {
+                transaction.setSubcategory(plaidTx.getCategory().get(1));
+            }
+        }
+        transaction.setBudgetCategory(budgetCategoryService.resolve(bankAccount.getUserId(), transaction.getCategory()));
+
+        // Other fields
+        if (plaidTx.getPaymentChannel() != null) {
+            transaction.setPaymentChannel(plaidTx.getPaymentChannel().toString());
+        }
+        transaction.setPending(plaidTx.getPending());
+        transaction.setCurrencyCode(plaidTx.getIsoCurrencyCode());
+
+        // Location
+        if (plaidTx.getLocation() != null) {
+            transaction.setLocationAddress(plaidTx.getLocation().getAddress());
+            transaction.setLocationCity(plaidTx.getLocation().getCity());
+            transaction.setLocationRegion(plaidTx.getLocation().getRegion());
+        }
+    }
+
+    /**
+     * Outcome of ingesting one page
+     */
+    public record IngestResult(List<Transaction> inserted, int updated, int removed) {
+    }
+}
@@ -4,109 +4,286 @@ package com.financecoach.backend.service;
 import com.financecoach.backend.exception.BankAccountNotFoundException;
 import com.financecoach.backend.exception.PlaidIntegrationException;
 import com.financecoach.backend.exception.UnauthorizedAccessException;
+import com.financecoach.backend.exception.ValidationException;
 import com.plaid.client.model.*;
 import com.plaid.client.request.PlaidApi;
 import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.SyncLease;
 import com.financecoach.backend.model.Transaction;
 import com.financecoach.backend.repository.BankAccountRepository;
 import com.financecoach.backend.repository.TransactionRepository;
+import com.financecoach.backend.util.PlaidErrors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import retrofit2.Response;
 
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+
+    // Max page size accepted by /transactions/sync
+    private static final int SYNC_PAGE_SIZE = 500;
+
+    // Delay of the follow-up sync queued when an item is already being synced
+    private static final long BUSY_ITEM_RETRY_MINUTES = 1;
+
+    // Rows fetched per keyset query when streaming a user's history
+    private static final int STREAM_PAGE_SIZE = 500;
+
     private final PlaidApi plaidClient;
     private final TransactionRepository transactionRepository;
     private final BankAccountRepository bankAccountRepository;
+    private final TransactionIngestionService transactionIngestionService;
+    private final SyncLeaseService syncLeaseService;
+    private final MerchantDictionaryService merchantDictionaryService;
     @Autowired
     private MetricsService metricsService;
+    @Autowired
+    private PlaidRateLimiter plaidRateLimiter;
+
+    @Value("${plaid.sync.backfill-days:730}")
+    private int backfillDays;
 
     @Autowired
     public TransactionService(PlaidApi plaidClient,
                               TransactionRepository transactionRepository,
-                              BankAccountRepository bankAccountRepository) {
+                              BankAccountRepository bankAccountRepository,
+                              TransactionIngestionService transactionIngestionService,
+                              SyncLeaseService syncLeaseService,
+                              MerchantDictionaryService merchantDictionaryService) {
         this.plaidClient = plaidClient;
         this.transactionRepository = transactionRepository;
         this.bankAccountRepository = bankAccountRepository;
+        this.transactionIngestionService = transactionIngestionService;
+        this.syncLeaseService = syncLeaseService;
+        this.merchantDictionaryService = merchantDictionaryService;
     }
 
     /**
-     * Sync transactions for a specific bank account
+     * Sync transactions for a specific bank account.
+     * Plaid syncs at the item level, so every active account sharing the item is
+     * synced in the same pass; only this account's new transactions are returned.
      */
     public List<Transaction> syncTransactions(UUID accountId, UUID userId) {
-        long startTime = System.currentTimeMillis();
+        // Get bank account
+        BankAccount bankAccount = bankAccountRepository.findById(accountId)
+                .orElseThrow(() -> new BankAccountNotFoundException(accountId));
 
-        try {
-            // Get bank account
-            BankAccount bankAccount = bankAccountRepository.findById(accountId)
-                    .orElseThrow(() -> new BankAccountNotFoundException(accountId));
+        // Verify ownership
+        if (!bankAccount.getUserId().equals(userId)) {
+            throw new UnauthorizedAccessException("bank account");
+        }
 
+        String itemKey = itemKey(bankAccount);
+        List<BankAccount> itemAccounts = bankAccountRepository.findByUserIdAndIsActive(userId, true).stream()
+                .filter(account -> itemKey.equals(itemKey(account)))
+                .toList();
+        if (itemAccounts.isEmpty()) {
+            itemAccounts = List.of(bankAccount);
+        }
+
+        List<Transaction> accountTransactions = new ArrayList<>();
+        syncItem(itemAccounts, page -> page.inserted().stream()
+                .filter(transaction -> accountId.equals(transaction.getAccountId()))
+                .forEach(accountTransactions::add));
+        return accountTransactions;
+    }
+
+    /**
+     * Sync every account of one Plaid item with a single /transactions/sync pass
+     */
+    public ItemSyncResult syncItem(List<BankAccount> itemAccounts) {
+        return syncItem(itemAccounts, page -> { });
+    }
+
+    /**
+     * Sync every account of one Plaid item with a single /transactions/sync pass.
+     * Uses the item's stored cursor, so only added/modified/removed deltas since the
+     * previous sync are pulled, and fans the results out by Plaid account_id.
+     *
+     * Pages are streamed: each one is written as it arrives and then dropped, so heap use
+     * stays at one page however much history the institution returns (the first sync of a
+     * new item backfills up to plaid.sync.backfill-days). Callers that need the rows see
+     * each written page through {@code pageListener}.
+     *
+     * Only one sync of an item runs at a time across all instances and entry points
+     * (scheduler, webhook, user-triggered job). If the item is already being synced the
+     * call returns a deferred result without touching Plaid, and a follow-up item sync is
+     * queued to pick up anything that arrives after the running one has finished.
+     */
+    public ItemSyncResult syncItem(List<BankAccount> itemAccounts,
+                                   Consumer<TransactionIngestionService.IngestResult> pageListener) {
+        String itemKey = lockKey(itemAccounts);
+        String lockToken = syncLeaseService.tryLockItem(itemKey);
+
+        if (lockToken == null) {
+            String plaidItemId = itemAccounts.get(0).getPlaidItemId();
+            if (plaidItemId != null) {
+                syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_TRANSACTIONS, plaidItemId,
+                        LocalDateTime.now().plusMinutes(BUSY_ITEM_RETRY_MINUTES));
+            }
+            logger.info("Item {} is already being synced, deferring", itemKey);
+            return ItemSyncResult.DEFERRED;
+        }
 
-            // Verify ownership
-            if (!bankAccount.getUserId().equals(userId)) {
-                throw new UnauthorizedAccessException("bank account");
+        try {
+            // Another sync may have advanced the cursor since the caller loaded these accounts
+            List<BankAccount> currentAccounts = bankAccountRepository.findAllById(itemAccounts.stream()
+                            .map(BankAccount::getId)
+                            .toList())
+                    .stream()
+                    .filter(account -> Boolean.TRUE.equals(account.getIsActive()))
+                    .toList();
+            if (currentAccounts.isEmpty()) {
+                return new ItemSyncResult(0, 0, 0, false);
             }
+            return syncLockedItem(currentAccounts, pageListener, itemKey, lockToken);
+        } finally {
+            syncLeaseService.unlockItem(itemKey, lockToken);
+        }
+    }
+
+    private ItemSyncResult syncLockedItem(List<BankAccount> itemAccounts,
+                                          Consumer<TransactionIngestionService.IngestResult> pageListener,
+                                          String itemKey, String lockToken) {
+        long startTime = System.currentTimeMillis();
 
-            // Fetch transactions from Plaid (last 30 days)
-            LocalDate endDate = LocalDate.now();
-            LocalDate startDate = endDate.minusDays(30);
+        BankAccount primary = itemAccounts.get(0);
+        Map<String, BankAccount> accountsByPlaidId = itemAccounts.stream()
+                .collect(Collectors.toMap(BankAccount::getPlaidAccountId, Function.identity()));
 
-            TransactionsGetRequest request = new TransactionsGetRequest()
-                    .accessToken(bankAccount.getPlaidAccessToken())
-                    .startDate(startDate)
-                    .endDate(endDate);
+        // An account added to the item later has no cursor yet - restart from the beginning,
+        // the ingestion upsert makes replaying already-stored transactions harmless
+        String cursor = itemAccounts.stream().anyMatch(account -> account.getPlaidCursor() == null)
+                ? null
+                : primary.getPlaidCursor();
 
-            Response<TransactionsGetResponse> response = plaidClient
-                    .transactionsGet(request)
-                    .execute();
+        int addedCount = 0;
+        int updatedCount = 0;
+        int removedCount = 0;
+        boolean hasMore = true;
 
-            if (!response.isSuccessful() || response.body() == null) {
-                String errorMsg = response.errorBody() != null
-                        ? response.errorBody().string()
-                        : "Unknown error";
-                throw new PlaidIntegrationException("Failed to fetch transactions: " + errorMsg);
-            }
+        try {
+            while (hasMore) {
+                TransactionsSyncRequest request = new TransactionsSyncRequest()
+                        .accessToken(primary.getPlaidAccessToken())
+                        .cursor(cursor)
+                        .count(SYNC_PAGE_SIZE)
+                        // Only honoured on an Item's first sync: backfill depth for Items
+                        // that were linked without the transactions product
+                        .options(new TransactionsSyncRequestOptions().daysRequested(backfillDays));
+
+                plaidRateLimiter.acquire();
+
+                // Heartbeat once per page; a lost lock means another sync owns the item now
+                if (!syncLeaseService.extendItemLock(itemKey, lockToken)) {
+                    throw new IllegalStateException("Sync lock of item " + itemKey + " expired mid-sync");
+                }
+
+                Response<TransactionsSyncResponse> response = plaidClient
+                        .transactionsSync(request)
+                        .execute();
 
-            // Save transactions
-            List<Transaction> savedTransactions = new ArrayList<>();
-            for (com.plaid.client.model.Transaction plaidTx : response.body().getTransactions()) {
-                if (transactionRepository.existsByPlaidTransactionId(plaidTx.getTransactionId())) {
-                    continue;
+                if (!response.isSuccessful() || response.body() == null) {
+                    String errorMsg = response.errorBody() != null
+                            ? response.errorBody().string()
+                            : "Unknown error";
+                    throw PlaidErrors.fromResponse("Failed to sync transactions", response.code(), errorMsg);
                 }
 
-                Transaction transaction = convertPlaidTransaction(plaidTx, bankAccount);
-                savedTransactions.add(transactionRepository.save(transaction));
+                TransactionsSyncResponse page = response.body();
+
+                // Added and modified are both upserts; each page is written in its own DB transaction
+                List<com.plaid.client.model.Transaction> upserts = new ArrayList<>(page.getAdded());
+                upserts.addAll(page.getModified());
+                List<String> removedIds = page.getRemoved().stream()
+                        .map(RemovedTransaction::getTransactionId)
+                        .toList();
+
+                // Register the page's new merchants up front, in a short transaction of their own,
+                // so ingestPage only hits the dictionary cache and holds one connection
+                merchantDictionaryService.resolveAll(upserts.stream()
+                        .map(plaidTx -> MerchantDictionaryService.rawName(plaidTx.getMerchantName(), plaidTx.getName()))
+                        .collect(Collectors.toSet()));
+
+                TransactionIngestionService.IngestResult result =
+                        transactionIngestionService.ingestPage(accountsByPlaidId, upserts, removedIds);
+                addedCount += result.inserted().size();
+                updatedCount += result.updated();
+                removedCount += result.removed();
+                pageListener.accept(result);
+
+                hasMore = Boolean.TRUE.equals(page.getHasMore());
+                cursor = page.getNextCursor();
             }
 
-            // Track metrics
-            metricsService.recordTransactionsSynced(savedTransactions.size());
-            long duration = System.currentTimeMillis() - startTime;
-            metricsService.recordTransactionSyncDuration(duration);
+        } catch (IOException e) {
+            // Timeouts and dropped connections - nothing about the item is wrong
+            throw new PlaidIntegrationException("Network error syncing transactions", e, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlaidIntegrationException("Transaction sync interrupted", e);
+        }
 
-            // Update last synced time
-            bankAccount.setLastSyncedAt(LocalDateTime.now());
-            bankAccountRepository.save(bankAccount);
+        // Track metrics
+        metricsService.recordTransactionsSynced(addedCount);
+        long duration = System.currentTimeMillis() - startTime;
+        metricsService.recordTransactionSyncDuration(duration);
 
-            return savedTransactions;
+        logger.info("Transaction sync completed - Item accounts: {}, Added: {}, Updated: {}, Removed: {}, Duration: {}ms",
+                itemAccounts.size(), addedCount, updatedCount, removedCount, duration);
 
-        } catch (IOException e) {
-            throw new PlaidIntegrationException("Network error syncing transactions", e);
+        // Only advance the cursor once every page has been applied
+        LocalDateTime now = LocalDateTime.now();
+        for (BankAccount account : itemAccounts) {
+            account.setPlaidCursor(cursor);
+            account.setLastSyncedAt(now);
         }
+        bankAccountRepository.saveAll(itemAccounts);
+
+        return new ItemSyncResult(addedCount, updatedCount, removedCount, false);
+    }
+
+    /**
+     * Lock identity of an item. Legacy accounts without an item id are keyed by their
+     * lowest account id rather than the access token, which must not end up in sync_leases.
+     */
+    private String lockKey(List<BankAccount> itemAccounts) {
+        BankAccount primary = itemAccounts.get(0);
+        if (primary.getPlaidItemId() != null) {
+            return primary.getPlaidItemId();
+        }
+        return "account-" + itemAccounts.stream()
+                .map(BankAccount::getId)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
     }
 
 
     /**
-     * Sync transactions for all user's bank accounts
+     * Sync transactions for all user's bank accounts, one Plaid call sequence per item.
+     * Returns the new rows, so use it for incremental syncs rather than initial backfills.
      */
     public List<Transaction> syncAllTransactions(UUID userId) {
         List<BankAccount> accounts = bankAccountRepository.findByUserIdAndIsActive(userId, true);
@@ -117,20 +294,32 @@ public class TransactionService {
 
         List<Transaction> allTransactions = new ArrayList<>();
 
-        for (BankAccount account : accounts) {
-            try {
-                List<Transaction> transactions = syncTransactions(account.getId(), userId);
-                allTransactions.addAll(transactions);
-            } catch (PlaidIntegrationException e) {
-                // Log error but continue with other accounts
-                // Exception will be logged by GlobalExceptionHandler
-                throw e; // Re-throw to notify user
-            }
+        for (List<BankAccount> itemAccounts : groupByItem(accounts).values()) {
+            // PlaidIntegrationException propagates to notify the user
+            syncItem(itemAccounts, page -> allTransactions.addAll(page.inserted()));
         }
 
         return allTransactions;
     }
 
+    /**
+     * Group bank accounts by the Plaid item they were linked through
+     */
+    public Map<String, List<BankAccount>> groupByItem(List<BankAccount> accounts) {
+        return accounts.stream()
+                .collect(Collectors.groupingBy(this::itemKey, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Item identity: the Plaid item_id, falling back to the access token for accounts
+     * linked before item ids were stored (one access token per item)
+     */
+    private String itemKey(BankAccount account) {
+        return account.getPlaidItemId() != null
+                ? account.getPlaidItemId()
+                : account.getPlaidAccessToken();
+    }
+
     /**
      * Get transactions for a user with optional filters
      */
@@ -141,6 +330,58 @@ public class TransactionService {
         return transactionRepository.findByUserId(userId);
     }
 
+    /**
+     * One page of a user's transactions, newest first.
+     * The cursor is the opaque (date, id) of the last row of the previous page, so each page
+     * is an index range scan no matter how deep the client has paged.
+     */
+    public TransactionPage getTransactionPage(UUID userId, LocalDate startDate, LocalDate endDate,
+                                              String cursor, int limit) {
+        LocalDate from = startDate != null ? startDate : LocalDate.of(1900, 1, 1);
+        LocalDate to = endDate != null ? endDate : LocalDate.of(9999, 12, 31);
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows = cursor == null
+                ? transactionRepository.findPageByUserId(userId, from, to, Limit.of(limit + 1))
+                : findPageAfter(userId, from, to, cursor, limit + 1);
+
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+
+        List<Transaction> page = rows.subList(0, limit);
+        return new TransactionPage(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    /**
+     * Walk all of a user's transactions in the range page by page, newest first,
+     * handing each page to {@code pageConsumer}. Heap use is one page regardless of history size.
+     */
+    public void forEachTransactionPage(UUID userId, LocalDate startDate, LocalDate endDate,
+                                       Consumer<List<Transaction>> pageConsumer) {
+        String cursor = null;
+        do {
+            TransactionPage page = getTransactionPage(userId, startDate, endDate, cursor, STREAM_PAGE_SIZE);
+            pageConsumer.accept(page.transactions());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    private List<Transaction> findPageAfter(UUID userId, LocalDate from, LocalDate to, String cursor, int limit) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return transactionRepository.findPageByUserIdAfter(userId, from, to,
+                    LocalDate.parse(parts[0]), UUID.fromString(parts[1]), Limit.of(limit));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+    }
+
+    private String encodeCursor(Transaction last) {
+        String key = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Get transactions by category
      */
@@ -149,52 +390,16 @@ public class TransactionService {
     }
 
     /**
-     * Convert Plaid transaction to our Transaction entity
+     * A page of transactions plus the cursor of the next one (null on the last page)
      */
-    private Transaction convertPlaidTransaction(com.plaid.client.model.Transaction plaidTx,
-                                                BankAccount bankAccount) {
-        Transaction transaction = new Transaction();
-
-        transaction.setUserId(bankAccount.getUserId());
-        transaction.setAccountId(bankAccount.getId());
-        transaction.setPlaidTransactionId(plaidTx.getTransactionId());
-
-        // Date
-        transaction.setDate(plaidTx.getDate());
-
-        // Amount (Plaid uses positive for expenses, negative for income)
-        transaction.setAmount(BigDecimal.valueOf(plaidTx.getAmount()));
-
-        // Merchant
-        transaction.setMerchantName(plaidTx.getMerchantName());
-        transaction.setName(plaidTx.getName());
-
-        // Category
-        if (plaidTx.getPersonalFinanceCategory() != null) {
-            transaction.setCategory(plaidTx.getPersonalFinanceCategory().getPrimary());
-            transaction.setSubcategory(plaidTx.getPersonalFinanceCategory().getDetailed());
-        } else if (plaidTx.getCategory() != null && !plaidTx.getCategory().isEmpty()) {
-            // Fallback to old category system
-            transaction.setCategory(plaidTx.getCategory().get(0));
-            if (plaidTx.getCategory().size() > 1) {
-                transaction.setSubcategory(plaidTx.getCategory().get(1));
-            }
-        }
+    public record TransactionPage(List<Transaction> transactions, String nextCursor) {
+    }
 
-        // Other fields
-        if (plaidTx.getPaymentChannel() != null) {
-            transaction.setPaymentChannel(plaidTx.getPaymentChannel().toString());
-        }
-        transaction.setPending(plaidTx.getPending());
-        transaction.setCurrencyCode(plaidTx.getIsoCurrencyCode());
-
-        // Location
-        if (plaidTx.getLocation() != null) {
-            transaction.setLocationAddress(plaidTx.getLocation().getAddress());
-            transaction.setLocationCity(plaidTx.getLocation().getCity());
-            transaction.setLocationRegion(plaidTx.getLocation().getRegion());
-        }
+    /**
+     * Totals of one item sync; deferred when another sync of the item was already running
+     */
+    public record ItemSyncResult(int added, int updated, int removed, boolean deferred) {
 
-        return transaction;
+        public static final ItemSyncResult DEFERRED = new ItemSyncResult(0, 0, 0, true);
     }
-}
\ No newline at end of file
+}
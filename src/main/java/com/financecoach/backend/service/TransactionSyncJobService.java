@@ -0,0 +1,221 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.dto.plaid.SyncJobResponse;
+import com.financecoach.backend.exception.BankAccountNotFoundException;
+import com.financecoach.backend.exception.UsageLimitExceededException;
+import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.SyncJob;
+import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.repository.SyncJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs user-triggered transaction syncs in the background and tracks their progress.
+ * Job state lives in the sync_jobs table, so any instance can answer a status poll; a user
+ * has at most one queued or running job cluster-wide, and a repeated request returns the job
+ * already in flight. Items that the scheduler or a webhook is syncing at the same moment are
+ * deferred by the per-item lock in {@link TransactionService#syncItem} and reported as such.
+ */
+@Service
+public class TransactionSyncJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSyncJobService.class);
+
+    private final TransactionService transactionService;
+    private final BankAccountRepository bankAccountRepository;
+    private final SyncJobRepository syncJobRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final ThreadPoolTaskExecutor transactionSyncJobExecutor;
+
+    // How long finished jobs stay available for status polling
+    @Value("${sync.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // A queued or running job not heartbeated for this long belonged to a dead instance
+    @Value("${sync.jobs.stale-minutes:5}")
+    private long staleMinutes;
+
+    // Jobs this instance has queued or is running, heartbeated until they finish
+    private final Set<UUID> localJobIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TransactionSyncJobService(TransactionService transactionService,
+                                     BankAccountRepository bankAccountRepository,
+                                     SyncJobRepository syncJobRepository,
+                                     SyncLeaseService syncLeaseService,
+                                     ThreadPoolTaskExecutor transactionSyncJobExecutor) {
+        this.transactionService = transactionService;
+        this.bankAccountRepository = bankAccountRepository;
+        this.syncJobRepository = syncJobRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionSyncJobExecutor = transactionSyncJobExecutor;
+    }
+
+    /**
+     * Start syncing all of the user's accounts, or return the job already running for them
+     */
+    public SyncJobResponse startSync(UUID userId) {
+        List<BankAccount> accounts = bankAccountRepository.findByUserIdAndIsActive(userId, true);
+
+        if (accounts.isEmpty()) {
+            throw new BankAccountNotFoundException("No active bank accounts found");
+        }
+
+        UUID jobId = UUID.randomUUID();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            syncJobRepository.abandonStale(userId, now.minusMinutes(staleMinutes), now);
+
+            if (syncJobRepository.insertIfNoActiveJob(jobId, userId, syncLeaseService.getInstanceId(),
+                    accounts.size(), now) == 1) {
+                break;
+            }
+
+            // Look again if the running job finished between the insert and the lookup
+            Optional<SyncJob> active = syncJobRepository.findByActiveUserId(userId);
+            if (active.isPresent()) {
+                logger.debug("Sync already running for user: {}, returning job {}", userId, active.get().getId());
+                return toResponse(active.get());
+            }
+        }
+
+        localJobIds.add(jobId);
+        try {
+            transactionSyncJobExecutor.execute(() -> run(jobId, userId, accounts));
+        } catch (TaskRejectedException e) {
+            localJobIds.remove(jobId);
+            syncJobRepository.deleteById(jobId);
+            logger.warn("Sync job queue full, rejecting sync for user: {}", userId);
+            throw new UsageLimitExceededException("Too many syncs in progress, please try again shortly");
+        }
+
+        logger.info("Queued sync job {} for user: {}, Accounts: {}", jobId, userId, accounts.size());
+        return syncJobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow();
+    }
+
+    /**
+     * Current state of one of the user's jobs
+     */
+    public Optional<SyncJobResponse> getJob(UUID jobId, UUID userId) {
+        return syncJobRepository.findByIdAndUserId(jobId, userId)
+                .map(this::toResponse);
+    }
+
+    /**
+     * Keep this instance's queued and running jobs from being taken for abandoned
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void heartbeatLocalJobs() {
+        if (!localJobIds.isEmpty()) {
+            syncJobRepository.heartbeat(List.copyOf(localJobIds), syncLeaseService.getInstanceId(),
+                    LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Forget finished jobs past their retention window
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void evictFinishedJobs() {
+        syncJobRepository.deleteFinishedBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+
+    private void run(UUID jobId, UUID userId, List<BankAccount> accounts) {
+        JobProgress progress = new JobProgress();
+        long startTime = System.currentTimeMillis();
+        String status;
+
+        try {
+            progress.save(jobId, SyncJob.STATUS_RUNNING);
+            Collection<List<BankAccount>> items = transactionService.groupByItem(accounts).values();
+            int failedItems = 0;
+
+            for (List<BankAccount> itemAccounts : items) {
+                try {
+                    // Progress is reported page by page while the item syncs
+                    TransactionService.ItemSyncResult result = transactionService.syncItem(itemAccounts, page -> {
+                        progress.transactionsIngested += page.inserted().size() + page.updated();
+                        progress.save(jobId, SyncJob.STATUS_RUNNING);
+                    });
+
+                    if (result.deferred()) {
+                        // Another sync holds the item; its data lands shortly after, not in this job
+                        progress.accountsDeferred += itemAccounts.size();
+                    } else {
+                        progress.accountsDone += itemAccounts.size();
+                    }
+                } catch (Exception e) {
+                    logger.error("Sync job {} failed for item of account {}: {}",
+                            jobId, itemAccounts.get(0).getId(), e.getMessage());
+                    progress.addError(itemAccounts.get(0).getInstitutionName() + ": " + e.getMessage());
+                    progress.accountsDone += itemAccounts.size();
+                    failedItems++;
+                }
+                progress.save(jobId, SyncJob.STATUS_RUNNING);
+            }
+
+            // Partial failures still complete; the errors list says which banks to retry
+            status = failedItems < items.size() ? SyncJob.STATUS_COMPLETED : SyncJob.STATUS_FAILED;
+        } catch (RuntimeException e) {
+            logger.error("Sync job {} aborted", jobId, e);
+            progress.addError(e.getMessage());
+            status = SyncJob.STATUS_FAILED;
+        }
+
+        try {
+            syncJobRepository.finish(jobId, status, progress.accountsDone, progress.accountsDeferred,
+                    progress.transactionsIngested, progress.errors(), LocalDateTime.now());
+        } finally {
+            localJobIds.remove(jobId);
+        }
+
+        logger.info("Sync job {} for user {} {} in {}ms - Transactions: {}, Deferred accounts: {}, Errors: {}",
+                jobId, userId, status, System.currentTimeMillis() - startTime,
+                progress.transactionsIngested, progress.accountsDeferred, progress.errorLines.size());
+    }
+
+    private SyncJobResponse toResponse(SyncJob job) {
+        List<String> errors = job.getErrors() == null || job.getErrors().isEmpty()
+                ? List.of()
+                : List.of(job.getErrors().split("\n"));
+        return new SyncJobResponse(job.getId(), job.getStatus(), job.getAccountsTotal(), job.getAccountsDone(),
+                job.getAccountsDeferred(), job.getTransactionsIngested(), errors,
+                job.getCreatedAt(), job.getFinishedAt());
+    }
+
+    /**
+     * Counters of a running job, owned by the executor thread and written through to sync_jobs
+     */
+    private class JobProgress {
+        private int accountsDone;
+        private int accountsDeferred;
+        private int transactionsIngested;
+        private final List<String> errorLines = new ArrayList<>();
+
+        private void addError(String message) {
+            errorLines.add(String.valueOf(message).replace('\n', ' '));
+        }
+
+        private String errors() {
+            return errorLines.isEmpty() ? null : String.join("\n", errorLines);
+        }
+
+        private void save(UUID jobId, String status) {
+            syncJobRepository.updateProgress(jobId, status, accountsDone, accountsDeferred,
+                    transactionsIngested, errors(), LocalDateTime.now());
+        }
+    }
+}
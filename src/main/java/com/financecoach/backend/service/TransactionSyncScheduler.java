@@ -1,62 +1,307 @@
 // src/main/java/com/financecoach/userservice/service/TransactionSyncScheduler.java
 package com.financecoach.backend.service;
 
+import com.financecoach.backend.exception.PlaidIntegrationException;
 import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.SyncLease;
 import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 @Service
 public class TransactionSyncScheduler {
 
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSyncScheduler.class);
+
     private final TransactionService transactionService;
     private final BankAccountRepository bankAccountRepository;
+    private final SyncLeaseService syncLeaseService;
+    private final TransactionRepository transactionRepository;
+    private final InvestmentService investmentService;
+
+    // Window used to estimate each user's transaction arrival rate
+    private static final int RATE_WINDOW_DAYS = 30;
+
+    @Value("${plaid.sync.min-interval-hours:2}")
+    private double minIntervalHours;
+
+    @Value("${plaid.sync.max-interval-hours:48}")
+    private double maxIntervalHours;
+
+    @Value("${plaid.sync.target-transactions-per-sync:5}")
+    private double targetTransactionsPerSync;
+
+    // Leases claimed per round-trip to the queue
+    @Value("${plaid.sync.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    @Value("${plaid.sync.failure-retry-minutes:30}")
+    private long failureRetryMinutes;
+
+    // Max concurrent syncs against a single institution, independent of the global rate limit
+    @Value("${plaid.sync.institution-concurrency:4}")
+    private int institutionConcurrency;
+
+    @Value("${plaid.sync.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${plaid.sync.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    private final Map<String, Semaphore> institutionPermits = new ConcurrentHashMap<>();
 
     @Autowired
     public TransactionSyncScheduler(TransactionService transactionService,
-                                    BankAccountRepository bankAccountRepository) {
+                                    BankAccountRepository bankAccountRepository,
+                                    SyncLeaseService syncLeaseService,
+                                    TransactionRepository transactionRepository,
+                                    InvestmentService investmentService) {
         this.transactionService = transactionService;
         this.bankAccountRepository = bankAccountRepository;
+        this.syncLeaseService = syncLeaseService;
+        this.transactionRepository = transactionRepository;
+        this.investmentService = investmentService;
     }
 
     /**
-     * Sync transactions for all active accounts every 12 hours
-     * Runs at 6 AM and 6 PM every day
+     * Make sure every user with an active account has a sync lease (every 10 minutes).
+     *
+     * Users are no longer all synced at fixed times: each lease carries its own due time,
+     * computed after every sync from the user's recent transaction rate (see
+     * {@link #nextSyncTime(UUID)}), and {@link #processDueSyncs()} drains them in due order.
+     * Only one instance queues the work; every instance drains the queue.
      */
-    @Scheduled(cron = "0 0 6,18 * * *")
+    @Scheduled(fixedDelayString = "${plaid.sync.enqueue-interval-ms:600000}")
     public void syncAllAccounts() {
-        System.out.println("Starting scheduled transaction sync at " + LocalDateTime.now());
+        if (!syncLeaseService.tryAcquireJob("transaction-sync-enqueue", Duration.ofMinutes(5))) {
+            return;
+        }
+
+        int queued = syncLeaseService.enqueueTransactionSyncForActiveUsers();
+        if (queued > 0) {
+            logger.info("Queued transaction sync for {} new or idle users", queued);
+        }
+    }
+
+    /**
+     * Drain due sync leases on this instance.
+     *
+     * Each claimed lease is either one user's scheduled sync, planned per Plaid item so accounts
+     * sharing an access token are fetched once, or a single item queued by a Plaid webhook.
+     * Work runs concurrently on virtual threads; throughput is bounded by the PlaidRateLimiter
+     * rather than by item count times Plaid latency.
+     */
+    @Scheduled(fixedDelayString = "${plaid.sync.poll-interval-ms:30000}")
+    public void processDueSyncs() {
+        long startTime = System.currentTimeMillis();
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger failureCount = new AtomicInteger();
+
+        try {
+            // Webhook work first: it is what users are waiting on
+            drain(SyncLease.TYPE_ITEM_TRANSACTIONS, this::syncWebhookItem, successCount, failureCount);
+            drain(SyncLease.TYPE_ITEM_HOLDINGS, this::syncWebhookHoldings, successCount, failureCount);
+            drain(SyncLease.TYPE_TRANSACTIONS, this::syncUser, successCount, failureCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Transaction sync interrupted");
+            return;
+        }
+
+        if (successCount.get() + failureCount.get() > 0) {
+            logger.info("Sync completed in {}ms. Success: {}, Failed: {}",
+                    System.currentTimeMillis() - startTime, successCount.get(), failureCount.get());
+        }
+    }
+
+    private void drain(String leaseType, Predicate<SyncLease> work,
+                       AtomicInteger successCount, AtomicInteger failureCount) throws InterruptedException {
+        List<SyncLease> leases;
+        while (!(leases = syncLeaseService.claimDue(leaseType, claimBatchSize)).isEmpty()) {
+            logger.info("Instance {} claimed {} {} syncs", syncLeaseService.getInstanceId(), leases.size(), leaseType);
+
+            // Leases expire a fixed time after the claim; keep extending the ones still running
+            // so a slow item (rate limiter queue, large backfill) isn't re-claimed elsewhere
+            Set<String> running = ConcurrentHashMap.newKeySet();
+            leases.forEach(lease -> running.add(lease.getLeaseKey()));
+            long heartbeatMs = syncLeaseService.getLeaseDuration().toMillis() / 3;
+            ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+            heartbeat.scheduleWithFixedDelay(() -> renewLeases(running), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(leases.size());
+
+                for (SyncLease lease : leases) {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            if (work.test(lease)) {
+                                successCount.incrementAndGet();
+                            } else {
+                                failureCount.incrementAndGet();
+                            }
+                        } finally {
+                            running.remove(lease.getLeaseKey());
+                        }
+                    }));
+                }
+
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        logger.error("Unexpected sync task failure", e.getCause());
+                    }
+                }
+            } finally {
+                heartbeat.shutdownNow();
+            }
+        }
+    }
 
-        List<BankAccount> activeAccounts = bankAccountRepository.findByIsActive(true);
+    private void renewLeases(Set<String> running) {
+        try {
+            syncLeaseService.renew(Set.copyOf(running));
+        } catch (Exception e) {
+            // A missed heartbeat is retried on the next tick; don't kill the schedule
+            logger.warn("Failed to renew sync leases: {}", e.getMessage());
+        }
+    }
 
-        int successCount = 0;
-        int failureCount = 0;
+    /**
+     * Sync every item of the lease's user and release the lease
+     */
+    private boolean syncUser(SyncLease lease) {
+        List<BankAccount> accounts = bankAccountRepository.findByUserIdAndIsActive(lease.getUserId(), true);
+        boolean success = true;
 
-        for (BankAccount account : activeAccounts) {
+        for (List<BankAccount> itemAccounts : transactionService.groupByItem(accounts).values()) {
             try {
-                transactionService.syncTransactions(account.getId(), account.getUserId());
-                successCount++;
-                System.out.println("Successfully synced account: " + account.getId());
+                syncWithRetry(itemAccounts);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                success = false;
+                break;
             } catch (Exception e) {
-                failureCount++;
-                System.err.println("Failed to sync account " + account.getId() + ": " + e.getMessage());
-                // In production: log to monitoring service, send alert, etc.
+                success = false;
+                logger.error("Failed to sync item of account {}: {}",
+                        itemAccounts.get(0).getId(), e.getMessage());
             }
         }
 
-        System.out.println("Sync completed. Success: " + successCount + ", Failed: " + failureCount);
+        if (success) {
+            syncLeaseService.complete(lease, accounts.isEmpty() ? null : nextSyncTime(lease.getUserId()));
+        } else {
+            // Back off exponentially on repeated failures, capped at the quiet-account interval
+            long retryMinutes = Math.min(
+                    failureRetryMinutes << Math.min(lease.getFailureCount(), 6),
+                    maxIntervalHours * 60);
+            syncLeaseService.fail(lease, LocalDateTime.now().plusMinutes(retryMinutes));
+        }
+        return success;
     }
 
     /**
-     * Alternative: Sync every 12 hours (simple version)
-     * Runs every 12 hours starting from app startup
+     * Sync the one item a TRANSACTIONS webhook named
      */
-    // @Scheduled(fixedRate = 43200000) // 12 hours in milliseconds
-    // public void syncAllAccountsFixedRate() {
-    //     syncAllAccounts();
-    // }
-}
\ No newline at end of file
+    private boolean syncWebhookItem(SyncLease lease) {
+        List<BankAccount> itemAccounts = bankAccountRepository.findByPlaidItemIdAndIsActive(lease.getPlaidItemId(), true);
+
+        try {
+            if (!itemAccounts.isEmpty()) {
+                syncWithRetry(itemAccounts);
+            }
+            syncLeaseService.complete(lease, null);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Failed webhook sync of item {}: {}", lease.getPlaidItemId(), e.getMessage());
+        }
+        syncLeaseService.fail(lease, LocalDateTime.now().plusMinutes(failureRetryMinutes));
+        return false;
+    }
+
+    /**
+     * Refresh holdings of the one item a HOLDINGS webhook named
+     */
+    private boolean syncWebhookHoldings(SyncLease lease) {
+        try {
+            investmentService.syncHoldingsForItem(lease.getPlaidItemId());
+            syncLeaseService.complete(lease, null);
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed webhook holdings sync of item {}: {}", lease.getPlaidItemId(), e.getMessage());
+            syncLeaseService.fail(lease, LocalDateTime.now().plusMinutes(failureRetryMinutes));
+            return false;
+        }
+    }
+
+    /**
+     * Pick the next sync time from the user's recent transaction arrival rate.
+     * The interval targets a fixed number of new transactions per sync, so busy users
+     * sync every few hours while quiet ones back off to the max interval.
+     */
+    private LocalDateTime nextSyncTime(UUID userId) {
+        long recentCount = transactionRepository.countByUserIdAndDateGreaterThanEqual(
+                userId, LocalDate.now().minusDays(RATE_WINDOW_DAYS));
+        double perHour = recentCount / (RATE_WINDOW_DAYS * 24.0);
+
+        double intervalHours = perHour > 0
+                ? targetTransactionsPerSync / perHour
+                : maxIntervalHours;
+        intervalHours = Math.max(minIntervalHours, Math.min(maxIntervalHours, intervalHours));
+
+        return LocalDateTime.now().plusMinutes(Math.round(intervalHours * 60));
+    }
+
+    /**
+     * Sync one item under its institution's concurrency cap, retrying transient Plaid
+     * failures with exponential backoff and jitter. Item errors fail straight away so a
+     * broken login doesn't hold the institution permit through every backoff.
+     */
+    private void syncWithRetry(List<BankAccount> itemAccounts) throws InterruptedException {
+        BankAccount primary = itemAccounts.get(0);
+        Semaphore permits = institutionPermits.computeIfAbsent(
+                primary.getInstitutionId() != null ? primary.getInstitutionId() : "unknown",
+                id -> new Semaphore(institutionConcurrency));
+
+        permits.acquire();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    transactionService.syncItem(itemAccounts);
+                    logger.debug("Successfully synced item of account: {}", primary.getId());
+                    return;
+                } catch (PlaidIntegrationException e) {
+                    if (!e.isRetryable() || attempt >= maxAttempts) {
+                        throw e;
+                    }
+                    long backoff = initialBackoffMs * (1L << (attempt - 1));
+                    long jitter = ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                    logger.warn("Sync attempt {} failed for item of account {}, retrying in {}ms: {}",
+                            attempt, primary.getId(), backoff + jitter, e.getMessage());
+                    Thread.sleep(backoff + jitter);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.financecoach.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Suggests a monthly budget from a category's recent monthly spend.
+ *
+ * Months outside Tukey's fences (1.5 IQR beyond the quartiles) are dropped first, so a
+ * one-off purchase or an unusually quiet month doesn't skew the result. The suggestion is
+ * the 75th percentile of what remains, never below the median, rounded up to a whole unit:
+ * enough for three typical months out of four.
+ */
+public final class BudgetRecommender {
+
+    // Quartiles from fewer months are too noisy to call anything an outlier
+    private static final int MIN_MONTHS_FOR_OUTLIERS = 4;
+    private static final double FENCE_IQR_MULTIPLIER = 1.5;
+    private static final long MINOR_UNITS = 100;
+
+    private BudgetRecommender() {
+    }
+
+    /**
+     * @param monthlySpend spend per month in minor units, zero for months without spending
+     */
+    public static Recommendation recommend(long[] monthlySpend) {
+        if (monthlySpend.length == 0) {
+            return new Recommendation(0, 0, 0, 0);
+        }
+
+        long[] sorted = monthlySpend.clone();
+        Arrays.sort(sorted);
+
+        if (sorted.length >= MIN_MONTHS_FOR_OUTLIERS) {
+            double q1 = percentile(sorted, 0.25);
+            double q3 = percentile(sorted, 0.75);
+            double fence = (q3 - q1) * FENCE_IQR_MULTIPLIER;
+            sorted = Arrays.stream(sorted)
+                    .filter(value -> value >= q1 - fence && value <= q3 + fence)
+                    .toArray();
+        }
+
+        long median = Math.round(percentile(sorted, 0.5));
+        long p75 = Math.round(percentile(sorted, 0.75));
+        long suggested = Math.max(median, p75);
+        long rounded = Math.ceilDiv(suggested, MINOR_UNITS) * MINOR_UNITS;
+
+        return new Recommendation(median, p75, rounded, sorted.length);
+    }
+
+    // Linear interpolation between closest ranks (the common "type 7" definition)
+    static double percentile(long[] sorted, double p) {
+        double rank = (sorted.length - 1) * p;
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    /**
+     * Amounts in minor units
+     *
+     * @param monthsUsed months left after outliers were dropped
+     */
+    public record Recommendation(long median, long p75, long recommended, int monthsUsed) {
+    }
+}
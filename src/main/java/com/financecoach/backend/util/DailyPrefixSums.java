@@ -0,0 +1,92 @@
+package com.financecoach.backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Prefix sums of daily spend and income (in cents) over a fixed date range.
+ *
+ * Built from one scan of per-day rollup totals; afterwards the spend or income of any
+ * window inside the range is a subtraction of two array entries.
+ */
+public final class DailyPrefixSums {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    // spend[i] = cents spent on days [startDate, startDate + i)
+    private final long[] spend;
+    private final long[] income;
+
+    private DailyPrefixSums(LocalDate startDate, LocalDate endDate, long[] spend, long[] income) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.spend = spend;
+        this.income = income;
+    }
+
+    /**
+     * Build from (date, spend, income) rows; dates outside the range are ignored and
+     * days without a row count as zero
+     */
+    public static DailyPrefixSums of(LocalDate startDate, LocalDate endDate, List<Object[]> dailyRows) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long[] spend = new long[days + 1];
+        long[] income = new long[days + 1];
+
+        for (Object[] row : dailyRows) {
+            long offset = ChronoUnit.DAYS.between(startDate, (LocalDate) row[0]);
+            if (offset >= 0 && offset < days) {
+                spend[(int) offset + 1] = toCents((BigDecimal) row[1]);
+                income[(int) offset + 1] = toCents((BigDecimal) row[2]);
+            }
+        }
+
+        for (int i = 1; i <= days; i++) {
+            spend[i] = Math.addExact(spend[i], spend[i - 1]);
+            income[i] = Math.addExact(income[i], income[i - 1]);
+        }
+
+        return new DailyPrefixSums(startDate, endDate, spend, income);
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Spending on [from, to], both inclusive; the part outside the built range counts as zero
+     */
+    public BigDecimal spending(LocalDate from, LocalDate to) {
+        return BigDecimal.valueOf(window(spend, from, to), MoneyAccumulator.DEFAULT_SCALE);
+    }
+
+    /**
+     * Income on [from, to], both inclusive; the part outside the built range counts as zero
+     */
+    public BigDecimal income(LocalDate from, LocalDate to) {
+        return BigDecimal.valueOf(window(income, from, to), MoneyAccumulator.DEFAULT_SCALE);
+    }
+
+    private long window(long[] prefix, LocalDate from, LocalDate to) {
+        int days = prefix.length - 1;
+        long lo = Math.max(0, ChronoUnit.DAYS.between(startDate, from));
+        long hi = Math.min(days, ChronoUnit.DAYS.between(startDate, to) + 1);
+        return hi > lo ? prefix[(int) hi] - prefix[(int) lo] : 0;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(MoneyAccumulator.DEFAULT_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,134 @@
+package com.financecoach.backend.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Turns raw Plaid merchant strings into a canonical merchant name.
+ *
+ * The raw string is first cleaned of processor prefixes, store numbers and reference
+ * suffixes ("SQ *BLUE BOTTLE #123" -> "BLUE BOTTLE", "AMAZON MKTPL*1A2B3C" -> "AMAZON MKTPL").
+ * Numbers that are part of the name survive ("7-ELEVEN", "24 HOUR FITNESS", "76").
+ * The cleaned words are then walked through a word trie of rules, and the longest matching
+ * prefix wins ("AMAZON MKTPL" and "AMZN" both map to "Amazon"). Strings no rule matches
+ * keep their cleaned words, title-cased. Instances are immutable and safe to share.
+ */
+public final class MerchantNormalizer {
+
+    public static final String UNKNOWN = "Unknown";
+
+    // Card processor / aggregator prefixes that precede the real merchant
+    private static final Pattern PROCESSOR_PREFIX =
+            Pattern.compile("^(SQ|TST|SP|PP|PAYPAL|IC|DD|GOOGLE|APL|APPLE PAY|PY|CKO)\\s*\\*\\s*");
+    // "*REF123", "#1234", trailing store/terminal numbers and everything after them
+    private static final Pattern REFERENCE_SUFFIX = Pattern.compile("\\s*[*#].*$");
+    private static final Pattern DOMAIN_SUFFIX = Pattern.compile("\\.(COM|NET|ORG|CO)\\b");
+    private static final Pattern NON_WORD = Pattern.compile("[^A-Z0-9&'\\- ]+");
+    // Hyphens only join words that involve a number ("7-ELEVEN"); "WAL-MART" is two words
+    private static final Pattern LOOSE_HYPHEN = Pattern.compile("(?<!\\d)-(?!\\d)");
+    // Store, terminal and phone numbers, dates, and references like "1A2B3C4D5"
+    private static final Pattern LONG_DIGIT_RUN = Pattern.compile("\\d{4,}");
+    private static final Pattern MIXED_REFERENCE = Pattern.compile("(?=[A-Z0-9]*\\d)(?=[A-Z0-9]*[A-Z])[A-Z0-9]{6,}");
+    private static final Pattern NUMBER = Pattern.compile("[\\d-]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final Node root = new Node();
+
+    /**
+     * @param rules cleaned word prefix (e.g. "AMAZON MKTPL") to canonical name (e.g. "Amazon")
+     */
+    public MerchantNormalizer(Map<String, String> rules) {
+        rules.forEach((prefix, canonical) -> {
+            String cleaned = clean(prefix);
+            if (!cleaned.isEmpty()) {
+                insert(cleaned, canonical);
+            }
+        });
+    }
+
+    /**
+     * Canonical name for a raw merchant string, {@link #UNKNOWN} when nothing is left of it
+     */
+    public String normalize(String raw) {
+        String cleaned = clean(raw);
+        if (cleaned.isEmpty()) {
+            return UNKNOWN;
+        }
+
+        String match = longestPrefixMatch(cleaned.split(" "));
+        return match != null ? match : titleCase(cleaned);
+    }
+
+    /**
+     * Upper-cased merchant words with processor prefixes, references and store numbers removed
+     */
+    public static String clean(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String s = raw.toUpperCase(Locale.ROOT).trim();
+        s = PROCESSOR_PREFIX.matcher(s).replaceFirst("");
+        s = REFERENCE_SUFFIX.matcher(s).replaceFirst("");
+        s = DOMAIN_SUFFIX.matcher(s).replaceAll("");
+        s = NON_WORD.matcher(s).replaceAll(" ");
+        s = LOOSE_HYPHEN.matcher(s).replaceAll(" ");
+
+        StringBuilder cleaned = new StringBuilder(s.length());
+        for (String word : SPACES.split(s.trim())) {
+            if (!word.isEmpty() && !isReference(word, cleaned.isEmpty())) {
+                if (!cleaned.isEmpty()) {
+                    cleaned.append(' ');
+                }
+                cleaned.append(word);
+            }
+        }
+        return cleaned.toString();
+    }
+
+    // A bare number only names the merchant when it leads ("76", "24 HOUR FITNESS")
+    private static boolean isReference(String word, boolean leading) {
+        return LONG_DIGIT_RUN.matcher(word).find()
+                || MIXED_REFERENCE.matcher(word).matches()
+                || (NUMBER.matcher(word).matches() && !leading);
+    }
+
+    private void insert(String cleaned, String canonical) {
+        Node node = root;
+        for (String word : cleaned.split(" ")) {
+            node = node.children.computeIfAbsent(word, w -> new Node());
+        }
+        node.canonical = canonical;
+    }
+
+    private String longestPrefixMatch(String[] words) {
+        Node node = root;
+        String match = null;
+        for (String word : words) {
+            node = node.children.get(word);
+            if (node == null) {
+                break;
+            }
+            if (node.canonical != null) {
+                match = node.canonical;
+            }
+        }
+        return match;
+    }
+
+    private static String titleCase(String cleaned) {
+        StringBuilder sb = new StringBuilder(cleaned.length());
+        boolean startOfWord = true;
+        for (char c : cleaned.toCharArray()) {
+            sb.append(startOfWord ? c : Character.toLowerCase(c));
+            startOfWord = c == ' ' || c == '-';
+        }
+        return sb.toString();
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private String canonical;
+    }
+}
@@ -0,0 +1,106 @@
+package com.financecoach.backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable money sum kept as a primitive count of minor units (cents at the default scale).
+ *
+ * Aggregation loops add into a long instead of allocating a new BigDecimal per step, and
+ * convert once via {@link #toBigDecimal()} when building the DTO. Every amount column in
+ * the schema has scale 2, so inputs convert exactly and the result equals what
+ * {@code BigDecimal::add} would have produced. If a value has more decimals than the
+ * accumulator's scale, or the long would overflow, the accumulator falls back to exact
+ * BigDecimal arithmetic for the rest of the sum rather than lose precision.
+ */
+public final class MoneyAccumulator {
+
+    // Scale of all money columns (numeric(.., 2))
+    public static final int DEFAULT_SCALE = 2;
+
+    // Digits for which the double round trip in toUnits is exact
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    private final int scale;
+    private long units;
+    private BigDecimal fallback;  // Non-null once the long path can no longer represent the sum
+
+    public MoneyAccumulator() {
+        this(DEFAULT_SCALE);
+    }
+
+    public MoneyAccumulator(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Add an amount; null counts as zero, matching the null-to-ZERO mapping used before
+     */
+    public MoneyAccumulator add(BigDecimal amount) {
+        if (amount == null) {
+            return this;
+        }
+        if (fallback == null) {
+            try {
+                return addUnits(toUnits(amount));
+            } catch (ArithmeticException e) {
+                // Sub-minor-unit precision or beyond the long range
+                switchToFallback();
+            }
+        }
+        fallback = fallback.add(amount);
+        return this;
+    }
+
+    /**
+     * Add an amount already expressed in minor units
+     */
+    public MoneyAccumulator addUnits(long minorUnits) {
+        if (fallback != null) {
+            fallback = fallback.add(BigDecimal.valueOf(minorUnits, scale));
+            return this;
+        }
+        try {
+            units = Math.addExact(units, minorUnits);
+        } catch (ArithmeticException e) {
+            switchToFallback();
+            fallback = fallback.add(BigDecimal.valueOf(minorUnits, scale));
+        }
+        return this;
+    }
+
+    public MoneyAccumulator add(MoneyAccumulator other) {
+        if (other.fallback == null && other.scale == scale) {
+            return addUnits(other.units);
+        }
+        return add(other.toBigDecimal());
+    }
+
+    public boolean isZero() {
+        return fallback == null ? units == 0 : fallback.signum() == 0;
+    }
+
+    public int signum() {
+        return fallback == null ? Long.signum(units) : fallback.signum();
+    }
+
+    public BigDecimal toBigDecimal() {
+        return fallback != null ? fallback : BigDecimal.valueOf(units, scale);
+    }
+
+    private long toUnits(BigDecimal amount) {
+        // Common case without allocating: unscaledValue() would build a BigInteger per call,
+        // doubleValue() of a small BigDecimal doesn't. With at most 15 digits the unscaled
+        // value is below 2^50, so the two roundings (to double, then times 10^scale) stay
+        // within 1/4 of it and Math.round recovers it exactly.
+        if (amount.scale() == scale && scale < POWERS_OF_TEN.length && amount.precision() <= MAX_EXACT_DIGITS) {
+            return Math.round(amount.doubleValue() * POWERS_OF_TEN[scale]);
+        }
+        return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private void switchToFallback() {
+        fallback = BigDecimal.valueOf(units, scale);
+    }
+}
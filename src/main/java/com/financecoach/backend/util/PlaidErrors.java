@@ -0,0 +1,59 @@
+package com.financecoach.backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.financecoach.backend.exception.PlaidIntegrationException;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Turns failed Plaid responses into {@link PlaidIntegrationException}s classified by Plaid's
+ * error_type/error_code. Only failures that can clear on their own are retryable; item and
+ * input errors such as ITEM_LOGIN_REQUIRED or INVALID_ACCESS_TOKEN fail the same way every time.
+ */
+public final class PlaidErrors {
+
+    // Plaid error types that are never about the item or request itself
+    private static final Set<String> TRANSIENT_ERROR_TYPES = Set.of("RATE_LIMIT_EXCEEDED", "API_ERROR");
+
+    // Error codes of other types that clear without user action. A mutation during
+    // pagination restarts cleanly because the sync cursor is only saved after the last page.
+    private static final Set<String> TRANSIENT_ERROR_CODES = Set.of(
+            "INSTITUTION_DOWN",
+            "INSTITUTION_NOT_RESPONDING",
+            "INSTITUTION_NOT_AVAILABLE",
+            "TRANSACTIONS_SYNC_MUTATION_DURING_PAGINATION");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PlaidErrors() {
+    }
+
+    /**
+     * @param message   what was being done, e.g. "Failed to sync transactions"
+     * @param errorBody the raw error response; bodies that aren't a Plaid error document
+     *                  (e.g. a proxy error page) are classified by HTTP status alone
+     */
+    public static PlaidIntegrationException fromResponse(String message, int httpStatus, String errorBody) {
+        String errorType = null;
+        String errorCode = null;
+        try {
+            JsonNode error = objectMapper.readTree(errorBody);
+            errorType = error.path("error_type").asText(null);
+            errorCode = error.path("error_code").asText(null);
+        } catch (IOException e) {
+            // Not JSON
+        }
+
+        boolean retryable;
+        if (errorType == null) {
+            retryable = httpStatus == 429 || httpStatus >= 500;
+        } else {
+            retryable = TRANSIENT_ERROR_TYPES.contains(errorType)
+                    || TRANSIENT_ERROR_CODES.contains(errorCode);
+        }
+
+        return new PlaidIntegrationException(message + ": " + errorBody, errorCode, retryable);
+    }
+}
@@ -0,0 +1,140 @@
+package com.financecoach.backend.util;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Detects a regular cadence in a short series of dated amounts (one merchant, one account).
+ *
+ * The median gap between consecutive occurrences is matched against known cadences (weekly,
+ * biweekly, semi-monthly, monthly, quarterly, yearly); the series is recurring when at
+ * least three occurrences exist and most gaps fall within a cadence's tolerance. When several
+ * cadences qualify, the one closest to the average gap wins: semi-monthly dates are 13-17 days
+ * apart and often have a median gap of exactly 14, but average 15.2 days, while biweekly
+ * dates average 14.
+ * The expected amount is the median of the recent amounts, so one-off spikes don't move it.
+ */
+public final class RecurrenceDetector {
+
+    // Cadence in days and the jitter tolerated around it (weekends, short months, payroll shifts)
+    private static final int[][] CADENCES = {
+            {7, 1}, {14, 2}, {15, 3}, {30, 4}, {91, 7}, {365, 10}
+    };
+
+    private static final int MIN_OCCURRENCES = 3;
+    private static final double MIN_REGULAR_SHARE = 0.75;
+
+    private RecurrenceDetector() {
+    }
+
+    /**
+     * @param dates   occurrence dates in ascending order
+     * @param amounts amounts in minor units, parallel to dates
+     */
+    public static Optional<Recurrence> detect(List<LocalDate> dates, List<Long> amounts) {
+        if (dates.size() < MIN_OCCURRENCES) {
+            return Optional.empty();
+        }
+
+        long[] gaps = new long[dates.size() - 1];
+        for (int i = 1; i < dates.size(); i++) {
+            gaps[i - 1] = ChronoUnit.DAYS.between(dates.get(i - 1), dates.get(i));
+        }
+        long medianGap = median(gaps.clone());
+        double meanGap = (double) ChronoUnit.DAYS.between(dates.get(0), dates.get(dates.size() - 1)) / gaps.length;
+
+        int[] best = null;
+        for (int[] cadence : CADENCES) {
+            if (Math.abs(medianGap - cadence[0]) > cadence[1]) {
+                continue;
+            }
+            int regular = 0;
+            for (long gap : gaps) {
+                if (Math.abs(gap - cadence[0]) <= cadence[1]) {
+                    regular++;
+                }
+            }
+            if (regular >= Math.ceil(gaps.length * MIN_REGULAR_SHARE)
+                    && (best == null || Math.abs(meanGap - cadence[0]) < Math.abs(meanGap - best[0]))) {
+                best = cadence;
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+
+        long[] sortedAmounts = amounts.stream().mapToLong(Long::longValue).toArray();
+        return Optional.of(new Recurrence(best[0], median(sortedAmounts)));
+    }
+
+    /**
+     * Expected occurrences after {@code lastDate}, up to and including {@code until}.
+     * Monthly-style cadences step by calendar months so they keep their day of month;
+     * semi-monthly ones fall on the days of month of the last two occurrences (e.g. the 1st
+     * and 15th), days past a short month's end landing on its last day.
+     *
+     * @param previousDate occurrence before {@code lastDate}, null if unknown
+     */
+    public static List<LocalDate> project(LocalDate previousDate, LocalDate lastDate, int periodDays,
+                                          LocalDate from, LocalDate until) {
+        if (periodDays == 15) {
+            return projectSemiMonthly(previousDate, lastDate, from, until);
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (int n = 1; ; n++) {
+            LocalDate next = switch (periodDays) {
+                case 30 -> lastDate.plusMonths(n);
+                case 91 -> lastDate.plusMonths(3L * n);
+                case 365 -> lastDate.plusYears(n);
+                default -> lastDate.plusDays((long) periodDays * n);
+            };
+            if (next.isAfter(until)) {
+                return dates;
+            }
+            if (!next.isBefore(from)) {
+                dates.add(next);
+            }
+        }
+    }
+
+    private static List<LocalDate> projectSemiMonthly(LocalDate previousDate, LocalDate lastDate,
+                                                      LocalDate from, LocalDate until) {
+        int lastDay = lastDate.getDayOfMonth();
+        int otherDay = previousDate != null && previousDate.getDayOfMonth() != lastDay
+                ? previousDate.getDayOfMonth()
+                : lastDay > 15 ? lastDay - 15 : lastDay + 15;
+        int[] days = {Math.min(lastDay, otherDay), Math.max(lastDay, otherDay)};
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(lastDate); ; month = month.plusMonths(1)) {
+            for (int day : days) {
+                LocalDate next = month.atDay(Math.min(day, month.lengthOfMonth()));
+                if (next.isAfter(until)) {
+                    return dates;
+                }
+                if (next.isAfter(lastDate) && !next.isBefore(from)) {
+                    dates.add(next);
+                }
+            }
+        }
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        int mid = values.length / 2;
+        return values.length % 2 == 1 ? values[mid] : (values[mid - 1] + values[mid]) / 2;
+    }
+
+    /**
+     * @param periodDays  snapped cadence in days (15 = semi-monthly, 30 = monthly, 91 = quarterly, 365 = yearly)
+     * @param amountCents typical signed amount in minor units (Plaid sign: positive is money out)
+     */
+    public record Recurrence(int periodDays, long amountCents) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.financecoach.backend.util;
+
+import java.util.*;
+
+/**
+ * Weighted Space-Saving summary of the heaviest items in a stream (Metwally et al.).
+ *
+ * Keeps at most {@code capacity} counters. An item that arrives when the summary is full
+ * takes over the smallest counter and inherits its count as error, so every tracked count
+ * is an upper bound on the true weight and over-counts by at most its error. Any item
+ * heavier than total weight / capacity is guaranteed to be tracked.
+ *
+ * Negative weights (corrections and removals) are applied to tracked items only; an
+ * untracked item was already below the smallest counter. Summaries merge by adding
+ * counters, charging each side's minimum to items that side does not track.
+ */
+public final class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    /**
+     * Add weight (may be negative) to an item
+     */
+    public void add(String item, long weight) {
+        if (weight == 0) {
+            return;
+        }
+
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+            if (counter.count <= 0) {
+                counters.remove(item);
+            } else {
+                counter.error = Math.min(counter.error, counter.count);
+            }
+            return;
+        }
+        if (weight < 0) {
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counters.put(item, new Counter(weight, 0));
+            return;
+        }
+
+        // Replace the smallest counter; its count becomes the newcomer's error
+        Map.Entry<String, Counter> min = minEntry();
+        counters.remove(min.getKey());
+        counters.put(item, new Counter(min.getValue().count + weight, min.getValue().count));
+    }
+
+    /**
+     * Combine with another summary (e.g. the next month) into a new one of this capacity
+     */
+    public SpaceSavingSketch merge(SpaceSavingSketch other) {
+        long thisMin = floor();
+        long otherMin = other.floor();
+
+        Map<String, Counter> combined = new HashMap<>();
+        counters.forEach((item, c) -> combined.put(item, new Counter(c.count, c.error)));
+        combined.forEach((item, c) -> {
+            if (!other.counters.containsKey(item)) {
+                c.count += otherMin;
+                c.error += otherMin;
+            }
+        });
+        other.counters.forEach((item, c) -> {
+            Counter mine = combined.get(item);
+            if (mine != null) {
+                mine.count += c.count;
+                mine.error += c.error;
+            } else {
+                combined.put(item, new Counter(c.count + thisMin, c.error + thisMin));
+            }
+        });
+
+        SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+        combined.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> e) -> e.getValue().count).reversed())
+                .limit(capacity)
+                .forEachOrdered(e -> merged.counters.put(e.getKey(), e.getValue()));
+        return merged;
+    }
+
+    /**
+     * The n heaviest tracked items, heaviest first
+     */
+    public List<Entry> top(int n) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> e) -> e.getValue().count).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(n)
+                .map(e -> new Entry(e.getKey(), e.getValue().count, e.getValue().error))
+                .toList();
+    }
+
+    /**
+     * One "count\terror\titem" line per counter
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        counters.forEach((item, c) -> sb.append(c.count).append('\t').append(c.error).append('\t')
+                .append(item.replace('\t', ' ').replace('\n', ' ')).append('\n'));
+        return sb.toString();
+    }
+
+    public static SpaceSavingSketch decode(String encoded, int capacity) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        if (encoded == null || encoded.isEmpty()) {
+            return sketch;
+        }
+
+        List<Map.Entry<String, Counter>> entries = new ArrayList<>();
+        for (String line : encoded.split("\n")) {
+            String[] parts = line.split("\t", 3);
+            if (parts.length == 3) {
+                entries.add(Map.entry(parts[2], new Counter(Long.parseLong(parts[0]), Long.parseLong(parts[1]))));
+            }
+        }
+
+        // A lowered capacity keeps the heaviest counters
+        entries.stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> e) -> e.getValue().count).reversed())
+                .limit(capacity)
+                .forEachOrdered(e -> sketch.counters.put(e.getKey(), e.getValue()));
+        return sketch;
+    }
+
+    // Upper bound on the weight of any untracked item
+    private long floor() {
+        return counters.size() < capacity ? 0 : minEntry().getValue().count;
+    }
+
+    private Map.Entry<String, Counter> minEntry() {
+        return Collections.min(counters.entrySet(), Comparator.comparingLong(e -> e.getValue().count));
+    }
+
+    /**
+     * @param count upper bound on the item's weight
+     * @param error how much of count may belong to items it displaced
+     */
+    public record Entry(String item, long count, long error) {
+    }
+
+    private static class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.financecoach.backend.benchmark;
+
+import com.financecoach.backend.util.MoneyAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing scale-2 amounts with BigDecimal::add vs MoneyAccumulator, for a flat total
+ * and a per-category breakdown (the monthly summary / budget / portfolio shapes).
+ *
+ * Run from the IDE or with the test classpath, e.g. main() below; add "-prof gc"
+ * (or .addProfiler(GCProfiler.class)) to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyAggregationBenchmark {
+
+    private static final String[] CATEGORIES = {
+            "FOOD_AND_DRINK", "TRANSPORTATION", "GENERAL_MERCHANDISE", "ENTERTAINMENT",
+            "TRAVEL", "RENT_AND_UTILITIES", "MEDICAL", "PERSONAL_CARE"
+    };
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private List<BigDecimal> amounts;
+    private List<String> categories;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new ArrayList<>(rows);
+        categories = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            amounts.add(BigDecimal.valueOf(random.nextInt(500_000), 2));
+            categories.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal totalAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator();
+        for (BigDecimal amount : amounts) {
+            total.add(amount);
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> breakdownBigDecimal() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            totals.merge(categories.get(i), amounts.get(i), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> breakdownAccumulator() {
+        Map<String, MoneyAccumulator> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            totals.computeIfAbsent(categories.get(i), k -> new MoneyAccumulator()).add(amounts.get(i));
+        }
+        Map<String, BigDecimal> result = new HashMap<>();
+        totals.forEach((category, total) -> result.put(category, total.toBigDecimal()));
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoneyAggregationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
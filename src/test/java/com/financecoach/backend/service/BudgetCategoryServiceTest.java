@@ -0,0 +1,63 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.BudgetCategoryMapping;
+import com.financecoach.backend.repository.BudgetCategoryMappingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget_categories;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR,KEY",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BudgetCategoryService.class)
+class BudgetCategoryServiceTest {
+
+    @Autowired
+    private BudgetCategoryService budgetCategoryService;
+
+    @Autowired
+    private BudgetCategoryMappingRepository mappingRepository;
+
+    @Test
+    void resolvesBuiltInDefaults() {
+        UUID userId = UUID.randomUUID();
+
+        assertThat(budgetCategoryService.resolve(userId, "FOOD_AND_DRINK")).isEqualTo("Food & Dining");
+        assertThat(budgetCategoryService.resolve(userId, "food_and_drink")).isEqualTo("Food & Dining");
+        assertThat(budgetCategoryService.resolve(userId, "TRANSFER_OUT")).isEqualTo(BudgetCategoryMapping.EXCLUDED);
+        assertThat(budgetCategoryService.resolve(userId, "LOAN_PAYMENTS")).isEqualTo("Other");
+        assertThat(budgetCategoryService.resolve(userId, null)).isEqualTo("Other");
+    }
+
+    @Test
+    void userOverridesTakePrecedenceAfterReload() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        mappingRepository.save(mapping(null, "LOAN_PAYMENTS", "Bills & Utilities"));
+        mappingRepository.save(mapping(userId, "FOOD_AND_DRINK", "Groceries"));
+
+        assertThat(budgetCategoryService.resolve(userId, "FOOD_AND_DRINK")).isEqualTo("Food & Dining");
+
+        budgetCategoryService.reloadMappings();
+
+        assertThat(budgetCategoryService.resolve(userId, "FOOD_AND_DRINK")).isEqualTo("Groceries");
+        assertThat(budgetCategoryService.resolve(otherUserId, "FOOD_AND_DRINK")).isEqualTo("Food & Dining");
+        assertThat(budgetCategoryService.resolve(otherUserId, "LOAN_PAYMENTS")).isEqualTo("Bills & Utilities");
+    }
+
+    private BudgetCategoryMapping mapping(UUID userId, String plaidCategory, String budgetCategory) {
+        BudgetCategoryMapping mapping = new BudgetCategoryMapping();
+        mapping.setUserId(userId);
+        mapping.setPlaidCategory(plaidCategory);
+        mapping.setBudgetCategory(budgetCategory);
+        return mapping;
+    }
+}
@@ -0,0 +1,156 @@
+package com.financecoach.backend.service;
+
+import com.financecoach.backend.model.BankAccount;
+import com.financecoach.backend.model.SyncLease;
+import com.financecoach.backend.repository.BankAccountRepository;
+import com.financecoach.backend.repository.SyncLeaseRepository;
+import org.jasypt.encryption.StringEncryptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync_leases;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=MONTH,VALUE,YEAR,KEY",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SyncLeaseService.class, SyncLeaseServiceTest.TestEncryptorConfig.class})
+class SyncLeaseServiceTest {
+
+    @Autowired
+    private SyncLeaseService syncLeaseService;
+
+    @Autowired
+    private SyncLeaseRepository syncLeaseRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Test
+    void claimDueLeasesDueWorkOnlyOnce() {
+        SyncLease due = transactionLease(LocalDateTime.now().minusMinutes(1));
+        SyncLease notYetDue = transactionLease(LocalDateTime.now().plusHours(1));
+        syncLeaseRepository.saveAll(List.of(due, notYetDue));
+
+        List<SyncLease> claimed = syncLeaseService.claimDue(SyncLease.TYPE_TRANSACTIONS, 10);
+
+        assertThat(claimed).extracting(SyncLease::getLeaseKey).containsExactly(due.getLeaseKey());
+        assertThat(claimed.get(0).getOwner()).isEqualTo(syncLeaseService.getInstanceId());
+        assertThat(syncLeaseService.claimDue(SyncLease.TYPE_TRANSACTIONS, 10)).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseIsReclaimed() {
+        SyncLease abandoned = transactionLease(LocalDateTime.now().minusMinutes(30));
+        abandoned.setOwner("crashed-instance");
+        abandoned.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        syncLeaseRepository.save(abandoned);
+
+        List<SyncLease> claimed = syncLeaseService.claimDue(SyncLease.TYPE_TRANSACTIONS, 10);
+
+        assertThat(claimed).extracting(SyncLease::getOwner).containsExactly(syncLeaseService.getInstanceId());
+    }
+
+    @Test
+    void completeReleasesLeaseAndClearsDueTime() {
+        syncLeaseRepository.save(transactionLease(LocalDateTime.now().minusMinutes(1)));
+        SyncLease claimed = syncLeaseService.claimDue(SyncLease.TYPE_TRANSACTIONS, 10).get(0);
+
+        syncLeaseService.complete(claimed, null);
+
+        SyncLease stored = syncLeaseRepository.findById(claimed.getLeaseKey()).orElseThrow();
+        assertThat(stored.getOwner()).isNull();
+        assertThat(stored.getNextRunAt()).isNull();
+        assertThat(stored.getLastCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void scheduledJobRunsOnOneInstanceOnly() {
+        String jobName = "test-job-" + UUID.randomUUID();
+
+        assertThat(syncLeaseService.tryAcquireJob(jobName, Duration.ofMinutes(5))).isTrue();
+        assertThat(syncLeaseService.tryAcquireJob(jobName, Duration.ofMinutes(5))).isFalse();
+    }
+
+    @Test
+    void enqueueCreatesOneLeasePerActiveUser() {
+        UUID userId = UUID.randomUUID();
+        bankAccountRepository.saveAll(List.of(bankAccount(userId, "acc-1"), bankAccount(userId, "acc-2")));
+
+        syncLeaseService.enqueueTransactionSyncForActiveUsers();
+
+        SyncLease lease = syncLeaseRepository.findById("transactions:" + userId).orElseThrow();
+        assertThat(lease.getUserId()).isEqualTo(userId);
+        assertThat(lease.getNextRunAt()).isNotNull();
+    }
+
+    @Test
+    void repeatedItemWebhooksCoalesceIntoOneSync() {
+        String itemId = "item-" + UUID.randomUUID();
+
+        assertThat(syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_TRANSACTIONS, itemId)).isTrue();
+        assertThat(syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_TRANSACTIONS, itemId)).isFalse();
+
+        List<SyncLease> claimed = syncLeaseService.claimDue(SyncLease.TYPE_ITEM_TRANSACTIONS, 10);
+        assertThat(claimed).extracting(SyncLease::getPlaidItemId).containsExactly(itemId);
+    }
+
+    @Test
+    void webhookDuringRunQueuesAnotherRun() {
+        String itemId = "item-" + UUID.randomUUID();
+        syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_HOLDINGS, itemId);
+        SyncLease claimed = syncLeaseService.claimDue(SyncLease.TYPE_ITEM_HOLDINGS, 10).get(0);
+
+        syncLeaseService.queueItemWork(SyncLease.TYPE_ITEM_HOLDINGS, itemId);
+        syncLeaseService.complete(claimed, null);
+
+        SyncLease stored = syncLeaseRepository.findById(claimed.getLeaseKey()).orElseThrow();
+        assertThat(stored.getNextRunAt()).isNotNull();
+    }
+
+    private SyncLease transactionLease(LocalDateTime nextRunAt) {
+        UUID userId = UUID.randomUUID();
+        SyncLease lease = new SyncLease("transactions:" + userId, SyncLease.TYPE_TRANSACTIONS, userId);
+        lease.setNextRunAt(nextRunAt);
+        return lease;
+    }
+
+    private BankAccount bankAccount(UUID userId, String plaidAccountId) {
+        BankAccount account = new BankAccount();
+        account.setUserId(userId);
+        account.setPlaidAccountId(plaidAccountId);
+        account.setPlaidAccessToken("access-sandbox-token");
+        return account;
+    }
+
+    @TestConfiguration
+    static class TestEncryptorConfig {
+
+        // BankAccount's access-token converter needs an encryptor; identity is enough here
+        @Bean(name = "jasyptStringEncryptor")
+        StringEncryptor jasyptStringEncryptor() {
+            return new StringEncryptor() {
+                @Override
+                public String encrypt(String message) {
+                    return message;
+                }
+
+                @Override
+                public String decrypt(String encryptedMessage) {
+                    return encryptedMessage;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetRecommenderTest {
+
+    @Test
+    void suggestsSeventyFifthPercentileRoundedUpToWholeUnit() {
+        BudgetRecommender.Recommendation recommendation =
+                BudgetRecommender.recommend(new long[]{40000, 42000, 45050, 41000, 43000, 44000});
+
+        assertThat(recommendation.median()).isEqualTo(42500);
+        assertThat(recommendation.p75()).isEqualTo(43750);
+        assertThat(recommendation.recommended()).isEqualTo(43800);
+        assertThat(recommendation.monthsUsed()).isEqualTo(6);
+    }
+
+    @Test
+    void dropsOneOffSpikesBeforeSuggesting() {
+        BudgetRecommender.Recommendation recommendation =
+                BudgetRecommender.recommend(new long[]{30000, 31000, 250000, 29000, 30500, 32000});
+
+        assertThat(recommendation.monthsUsed()).isEqualTo(5);
+        assertThat(recommendation.recommended()).isEqualTo(31000);
+    }
+
+    @Test
+    void keepsShortSeriesWhole() {
+        BudgetRecommender.Recommendation recommendation = BudgetRecommender.recommend(new long[]{10000, 90000});
+
+        assertThat(recommendation.monthsUsed()).isEqualTo(2);
+        assertThat(recommendation.median()).isEqualTo(50000);
+        assertThat(recommendation.recommended()).isEqualTo(70000);
+    }
+}
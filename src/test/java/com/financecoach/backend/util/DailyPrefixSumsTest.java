@@ -0,0 +1,42 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyPrefixSumsTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    private final DailyPrefixSums sums = DailyPrefixSums.of(START, START.plusDays(9), List.of(
+            new Object[]{START, new BigDecimal("10.00"), new BigDecimal("0.00")},
+            new Object[]{START.plusDays(3), new BigDecimal("2.50"), new BigDecimal("100.00")},
+            new Object[]{START.plusDays(9), new BigDecimal("7.25"), new BigDecimal("0.00")}
+    ));
+
+    @Test
+    void windowsSumInclusiveRanges() {
+        assertThat(sums.spending(START, START.plusDays(9))).isEqualTo(new BigDecimal("19.75"));
+        assertThat(sums.spending(START.plusDays(1), START.plusDays(3))).isEqualTo(new BigDecimal("2.50"));
+        assertThat(sums.income(START.plusDays(3), START.plusDays(3))).isEqualTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void daysOutsideTheRangeCountAsZero() {
+        assertThat(sums.spending(START.minusDays(30), START)).isEqualTo(new BigDecimal("10.00"));
+        assertThat(sums.spending(START.plusDays(10), START.plusDays(20))).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void subCentTotalsRoundHalfUp() {
+        DailyPrefixSums fractional = DailyPrefixSums.of(START, START, List.<Object[]>of(
+                new Object[]{START, new BigDecimal("1.005"), new BigDecimal("2.0049")}));
+
+        assertThat(fractional.spending(START, START)).isEqualTo(new BigDecimal("1.01"));
+        assertThat(fractional.income(START, START)).isEqualTo(new BigDecimal("2.00"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MerchantNormalizerTest {
+
+    private final MerchantNormalizer normalizer = new MerchantNormalizer(Map.of(
+            "AMAZON", "Amazon",
+            "AMZN", "Amazon",
+            "UBER", "Uber",
+            "UBER EATS", "Uber Eats"
+    ));
+
+    @Test
+    void statementVariantsMapToOneMerchant() {
+        assertThat(normalizer.normalize("AMAZON MKTPL*1A2B3C4D5")).isEqualTo("Amazon");
+        assertThat(normalizer.normalize("Amazon")).isEqualTo("Amazon");
+        assertThat(normalizer.normalize("AMZN Mktp US")).isEqualTo("Amazon");
+        assertThat(normalizer.normalize("Amazon.com")).isEqualTo("Amazon");
+    }
+
+    @Test
+    void longestRulePrefixWins() {
+        assertThat(normalizer.normalize("UBER EATS 8005928996")).isEqualTo("Uber Eats");
+        assertThat(normalizer.normalize("Uber 063015 SF**POOL**")).isEqualTo("Uber");
+    }
+
+    @Test
+    void unmatchedNamesAreCleanedAndTitleCased() {
+        assertThat(normalizer.normalize("SQ *BLUE BOTTLE #123")).isEqualTo("Blue Bottle");
+        assertThat(normalizer.normalize(null)).isEqualTo(MerchantNormalizer.UNKNOWN);
+        assertThat(normalizer.normalize("#4411")).isEqualTo(MerchantNormalizer.UNKNOWN);
+    }
+
+    @Test
+    void numbersThatArePartOfTheNameAreKept() {
+        assertThat(normalizer.normalize("7-ELEVEN 35521")).isEqualTo("7-Eleven");
+        assertThat(normalizer.normalize("24 HOUR FITNESS #312")).isEqualTo("24 Hour Fitness");
+        assertThat(normalizer.normalize("76 08231543")).isEqualTo("76");
+        assertThat(normalizer.normalize("1-800-FLOWERS.COM")).isEqualTo("1-800-Flowers");
+    }
+
+    @Test
+    void storeNumbersAndReferencesAreDropped() {
+        assertThat(normalizer.normalize("WALGREENS 12 0412")).isEqualTo("Walgreens");
+        assertThat(normalizer.normalize("BLUE BOTTLE 2B8X9K3 OAKLAND")).isEqualTo("Blue Bottle Oakland");
+        assertThat(normalizer.normalize("WAL-MART")).isEqualTo("Wal Mart");
+    }
+}
@@ -0,0 +1,73 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyAccumulatorTest {
+
+    @Test
+    void sumsMatchBigDecimalAddition() {
+        BigDecimal[] amounts = {
+                new BigDecimal("12.34"), new BigDecimal("-5.01"), new BigDecimal("1000.00"), new BigDecimal("0.99")
+        };
+
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            accumulator.add(amount);
+            expected = expected.add(amount);
+        }
+
+        assertThat(accumulator.toBigDecimal()).isEqualTo(expected);
+    }
+
+    @Test
+    void fastPathIsExactUpToFifteenDigits() {
+        BigDecimal[] amounts = {
+                new BigDecimal("9999999999999.99"), new BigDecimal("-9999999999999.99"),
+                new BigDecimal("0.01"), new BigDecimal("-0.07"), new BigDecimal("1234567890123.45"),
+                // Largest and smallest unscaled values the fast path takes, and their neighbours
+                BigDecimal.valueOf(999_999_999_999_999L, 2), BigDecimal.valueOf(-999_999_999_999_999L, 2),
+                BigDecimal.valueOf(999_999_999_999_998L, 2), BigDecimal.valueOf(-999_999_999_999_998L, 2),
+                // 16 digits - takes the exact path
+                BigDecimal.valueOf(1_000_000_000_000_000L, 2), BigDecimal.valueOf(-1_000_000_000_000_000L, 2),
+                new BigDecimal("99999999999999.99")
+        };
+        for (BigDecimal amount : amounts) {
+            assertThat(new MoneyAccumulator().add(amount).toBigDecimal()).isEqualTo(amount);
+        }
+
+        // Unscaled values below 10^15, so every draw takes the fast path
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long unscaled = random.nextLong(-999_999_999_999_999L, 1_000_000_000_000_000L);
+            BigDecimal amount = BigDecimal.valueOf(unscaled, 2);
+            assertThat(new MoneyAccumulator().add(amount).toBigDecimal()).isEqualTo(amount);
+        }
+    }
+
+    @Test
+    void nullCountsAsZero() {
+        MoneyAccumulator accumulator = new MoneyAccumulator().add(null).add(new BigDecimal("3.50"));
+
+        assertThat(accumulator.toBigDecimal()).isEqualTo(new BigDecimal("3.50"));
+    }
+
+    @Test
+    void fallsBackToExactArithmeticOnOverflowAndExtraPrecision() {
+        MoneyAccumulator overflow = new MoneyAccumulator()
+                .addUnits(Long.MAX_VALUE)
+                .add(new BigDecimal("0.01"));
+        assertThat(overflow.toBigDecimal())
+                .isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE, 2).add(new BigDecimal("0.01")));
+
+        MoneyAccumulator precise = new MoneyAccumulator()
+                .add(new BigDecimal("1.10"))
+                .add(new BigDecimal("0.005"));
+        assertThat(precise.toBigDecimal()).isEqualByComparingTo("1.105");
+    }
+}
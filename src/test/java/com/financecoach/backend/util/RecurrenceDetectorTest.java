@@ -0,0 +1,81 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceDetectorTest {
+
+    @Test
+    void detectsMonthlyChargeDespiteDayJitter() {
+        List<LocalDate> dates = List.of(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 3), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+        List<Long> amounts = List.of(150000L, 150000L, 155000L, 150000L);
+
+        assertThat(RecurrenceDetector.detect(dates, amounts))
+                .contains(new RecurrenceDetector.Recurrence(30, 150000L));
+    }
+
+    @Test
+    void irregularPurchasesAreNotRecurring() {
+        List<LocalDate> dates = List.of(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4), LocalDate.of(2025, 2, 20), LocalDate.of(2025, 3, 2));
+
+        assertThat(RecurrenceDetector.detect(dates, List.of(1000L, 2500L, 700L, 4000L))).isEmpty();
+    }
+
+    @Test
+    void projectsMonthlyOccurrencesOnTheSameDayOfMonth() {
+        assertThat(RecurrenceDetector.project(LocalDate.of(2024, 12, 15), LocalDate.of(2025, 1, 15), 30,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 4, 30)))
+                .containsExactly(LocalDate.of(2025, 2, 15), LocalDate.of(2025, 3, 15), LocalDate.of(2025, 4, 15));
+    }
+
+    @Test
+    void detectsBiweeklyPay() {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2025, 1, 3); date.isBefore(LocalDate.of(2025, 7, 1)); date = date.plusWeeks(2)) {
+            dates.add(date);
+        }
+
+        assertThat(RecurrenceDetector.detect(dates, Collections.nCopies(dates.size(), -250000L)))
+                .contains(new RecurrenceDetector.Recurrence(14, -250000L));
+    }
+
+    @Test
+    void detectsSemiMonthlyPayOnTheFirstAndFifteenth() {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate month = LocalDate.of(2025, 1, 1); month.isBefore(LocalDate.of(2025, 7, 1)); month = month.plusMonths(1)) {
+            dates.add(month);
+            dates.add(month.withDayOfMonth(15));
+        }
+
+        assertThat(RecurrenceDetector.detect(dates, Collections.nCopies(dates.size(), -250000L)))
+                .contains(new RecurrenceDetector.Recurrence(15, -250000L));
+    }
+
+    @Test
+    void projectsBiweeklyOccurrencesEveryFourteenDays() {
+        assertThat(RecurrenceDetector.project(LocalDate.of(2024, 12, 20), LocalDate.of(2025, 1, 3), 14,
+                LocalDate.of(2025, 1, 4), LocalDate.of(2025, 2, 20)))
+                .containsExactly(LocalDate.of(2025, 1, 17), LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 14));
+    }
+
+    @Test
+    void projectsSemiMonthlyOccurrencesOnTheSameDaysOfMonth() {
+        assertThat(RecurrenceDetector.project(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 2, 1), 15,
+                LocalDate.of(2025, 2, 2), LocalDate.of(2025, 3, 31)))
+                .containsExactly(LocalDate.of(2025, 2, 15), LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 15));
+
+        // 15th and last day: the 31st lands on the last day of shorter months
+        assertThat(RecurrenceDetector.project(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 1, 31), 15,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 31)))
+                .containsExactly(LocalDate.of(2025, 2, 15), LocalDate.of(2025, 2, 28),
+                        LocalDate.of(2025, 3, 15), LocalDate.of(2025, 3, 31));
+    }
+}
@@ -0,0 +1,50 @@
+package com.financecoach.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void heavyItemsSurviveEvictionWithUpperBoundCounts() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        for (int i = 0; i < 50; i++) {
+            sketch.add("Rent", 1000);
+            sketch.add("merchant-" + i, 10);
+        }
+
+        SpaceSavingSketch.Entry top = sketch.top(1).get(0);
+        assertThat(top.item()).isEqualTo("Rent");
+        assertThat(top.count()).isGreaterThanOrEqualTo(50_000);
+        assertThat(top.count() - top.error()).isLessThanOrEqualTo(50_000);
+    }
+
+    @Test
+    void mergeAddsCountsAcrossMonths() {
+        SpaceSavingSketch january = new SpaceSavingSketch(4);
+        january.add("Amazon", 500);
+        january.add("Uber", 200);
+        SpaceSavingSketch february = new SpaceSavingSketch(4);
+        february.add("Amazon", 300);
+        february.add("Netflix", 100);
+
+        SpaceSavingSketch merged = january.merge(february);
+
+        assertThat(merged.top(3)).extracting(SpaceSavingSketch.Entry::item)
+                .containsExactly("Amazon", "Uber", "Netflix");
+        assertThat(merged.top(1).get(0).count()).isEqualTo(800);
+    }
+
+    @Test
+    void removalsReduceTrackedItemsAndEncodingRoundTrips() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        sketch.add("Amazon", 500);
+        sketch.add("Uber", 200);
+        sketch.add("Uber", -200);
+
+        SpaceSavingSketch decoded = SpaceSavingSketch.decode(sketch.encode(), 4);
+
+        assertThat(decoded.top(5)).containsExactly(new SpaceSavingSketch.Entry("Amazon", 500, 0));
+    }
+}